@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.mcgill.solitaire.cards.Deck;
+import ca.mcgill.solitaire.model.CompactGameState;
+import ca.mcgill.solitaire.model.GameModel;
+import ca.mcgill.solitaire.model.Move;
+
+/**
+ * Benchmarks for choosing a move with the greedy strategy, and for playing a
+ * complete game with it, on a GameModel and on a CompactGameState. Every
+ * benchmark starts from the deal of the same seed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GreedyPlayingStrategyBenchmark {
+	private final PlayingStrategy aStrategy = new GreedyPlayingStrategy();
+	private final GameModel aModel = new GameModel(aStrategy);
+	private CompactGameState aState;
+
+	/**
+	 * The seed of the deal.
+	 */
+	@Param({"1", "2025"})
+	public long aSeed;
+
+	/**
+	 * Deals the game.
+	 */
+	@Setup
+	public void setUp() {
+		aModel.reset(aSeed);
+		Deck deck = new Deck();
+		deck.shuffle(aSeed);
+		aState = new CompactGameState(deck);
+	}
+
+	/**
+	 * @return The move chosen in the initial position of the deal.
+	 */
+	@Benchmark
+	public Move getLegalMove() {
+		return aStrategy.getLegalMove(aModel);
+	}
+
+	/**
+	 * @return The final score.
+	 */
+	@Benchmark
+	public int playGame() {
+		aModel.reset(aSeed);
+		while (aModel.tryToAutoPlay()) {
+			// Keep playing until the strategy gives up
+		}
+		return aModel.getScore();
+	}
+
+	/**
+	 * @return The final score.
+	 */
+	@Benchmark
+	public int playCompactGame() {
+		Move move = aStrategy.getLegalMove(aState);
+		while (!move.isNull()) {
+			move.perform();
+			move = aStrategy.getLegalMove(aState);
+		}
+		int score = aState.getScore();
+		while (aState.canUndo()) {
+			aState.undoLast();
+		}
+		return score;
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.cards;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for shuffling a deck and serializing a full stack of cards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CardsBenchmark {
+	private static final long SEED = 2025;
+
+	private final Deck aDeck = new Deck();
+	private CardStack aCards;
+	private String aSerialized;
+
+	/**
+	 * Prepares a stack of all the cards, in a fixed order.
+	 */
+	@Setup
+	public void setUp() {
+		aDeck.shuffle(SEED);
+		aCards = new CardStack(aDeck);
+		aSerialized = CardSerializer.serialize(aCards);
+	}
+
+	/**
+	 * @return The shuffled deck.
+	 */
+	@Benchmark
+	public Deck shuffle() {
+		aDeck.shuffle(SEED);
+		return aDeck;
+	}
+
+	/**
+	 * @return The serialized stack.
+	 */
+	@Benchmark
+	public String serialize() {
+		return CardSerializer.serialize(aCards);
+	}
+
+	/**
+	 * @return The deserialized stack.
+	 */
+	@Benchmark
+	public CardStack deserialize() {
+		return CardSerializer.deserialize(aSerialized);
+	}
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy;
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.cards.Deck;
+
+/**
+ * Benchmarks for dealing and for making and unmaking moves on a GameModel and
+ * its Tableau. All deals are seeded, so every run measures the same
+ * positions. The benchmarks that perform a move undo it in the same
+ * invocation, so that the state is the same for every invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameModelBenchmark {
+	private static final long SEED = 2025;
+
+	private final GameModel aModel = new GameModel(new GreedyPlayingStrategy());
+	private final Tableau aTableau = new Tableau();
+	private Card aCard;
+	private Location aDestination;
+	private Card aTableauCard;
+	private TableauPile aTableauOrigin;
+	private TableauPile aTableauDestination;
+
+	/**
+	 * Finds, from a seeded deal, a legal card move in the model, and a deal
+	 * where a card can be moved within the tableau.
+	 */
+	@Setup
+	public void setUp() {
+		aModel.reset(SEED);
+		int[] moves = new int[CompactGameState.MAX_MOVES];
+		int count = aModel.snapshot().generateMoves(moves);
+		for (int i = count - 1; i >= 0; i--) {
+			if (CompactGameState.moveDestination(moves[i]) != CompactGameState.DISCARD) {
+				aCard = Card.get(CompactGameState.moveCard(moves[i]));
+				aDestination = CompactGameState.locationOf(CompactGameState.moveDestination(moves[i]));
+			}
+		}
+		long seed = SEED;
+		while (aTableauCard == null) {
+			Deck deck = new Deck();
+			deck.shuffle(seed++);
+			aTableau.initialize(deck);
+			findMoveWithinTableau();
+		}
+		if (aCard == null) {
+			throw new IllegalStateException("No card move in the benchmark deal");
+		}
+	}
+
+	private void findMoveWithinTableau() {
+		for (TableauPile origin : TableauPile.values()) {
+			PileView pile = aTableau.getPileView(origin);
+			for (TableauPile destination : TableauPile.values()) {
+				if (!pile.isEmpty() && destination != origin && aTableau.canMoveTo(pile.peekTop(), destination)) {
+					aTableauCard = pile.peekTop();
+					aTableauOrigin = origin;
+					aTableauDestination = destination;
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The model.
+	 */
+	@Benchmark
+	public GameModel reset() {
+		aModel.reset(SEED);
+		return aModel;
+	}
+
+	/**
+	 * @return The model.
+	 */
+	@Benchmark
+	public GameModel cardMoveAndUndo() {
+		aModel.getCardMove(aCard, aDestination).perform();
+		aModel.undoLast();
+		return aModel;
+	}
+
+	/**
+	 * @return The model.
+	 */
+	@Benchmark
+	public GameModel discardMoveAndUndo() {
+		aModel.getDiscardMove().perform();
+		aModel.undoLast();
+		return aModel;
+	}
+
+	/**
+	 * @return The tableau.
+	 */
+	@Benchmark
+	public Tableau moveWithinTableau() {
+		aTableau.moveWithin(aTableauCard, aTableauDestination);
+		aTableau.moveWithin(aTableauCard, aTableauOrigin);
+		return aTableau;
+	}
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import ca.mcgill.solitaire.cards.Card;
+
+/**
+ * Reads, one after the other, the deals of a corpus of games. A corpus is
+ * either a stream of game records written by a GameRecordWriter, whose moves
+ * are ignored, or a text file with one deal per line. In the text format, a
+ * deal is the sequence of the ordinals of its 52 cards, separated by
+ * semicolons, going from the bottom of the deck to its top, as written by
+ * CardSerializer. Blank lines are ignored. The format is detected from the
+ * first bytes of the stream.
+ */
+public final class DealReader implements Closeable {
+	private static final String SEPARATOR = ";";
+
+	private final GameRecordReader aRecords;
+	private final BufferedReader aLines;
+	private int aLineNumber;
+
+	/**
+	 * Creates a reader and detects the format of the corpus.
+	 * 
+	 * @param pInput The stream to read from. It is closed when this reader is
+	 *     closed.
+	 * @throws IOException If the stream cannot be read.
+	 * @pre pInput != null
+	 */
+	public DealReader(InputStream pInput) throws IOException {
+		assert pInput != null;
+		BufferedInputStream input = new BufferedInputStream(pInput);
+		input.mark(Integer.BYTES);
+		byte[] header = input.readNBytes(Integer.BYTES);
+		input.reset();
+		if (header.length == Integer.BYTES && ByteBuffer.wrap(header).getInt() == RecordFormat.MAGIC) {
+			aRecords = new GameRecordReader(input);
+			aLines = null;
+		}
+		else {
+			aRecords = null;
+			aLines = new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII));
+		}
+	}
+
+	/**
+	 * Reads the next deal of the corpus.
+	 * 
+	 * @return All 52 cards of the next deal, from the bottom of the deck to
+	 *     its top, or empty if the end of the corpus was reached.
+	 * @throws IOException If the deal cannot be read or is not a valid deal.
+	 */
+	public Optional<List<Card>> read() throws IOException {
+		if (aRecords != null) {
+			return aRecords.read().map(GameRecord::getDeal);
+		}
+		String line = aLines.readLine();
+		aLineNumber++;
+		while (line != null && line.isBlank()) {
+			line = aLines.readLine();
+			aLineNumber++;
+		}
+		if (line == null) {
+			return Optional.empty();
+		}
+		return Optional.of(parse(line.strip()));
+	}
+
+	/*
+	 * The deal on a line of a text corpus.
+	 */
+	private List<Card> parse(String pLine) throws IOException {
+		List<Card> deal = new ArrayList<>();
+		long seen = 0;
+		for (String token : pLine.split(SEPARATOR)) {
+			int ordinal = parseOrdinal(token.strip());
+			if ((seen & 1L << ordinal) != 0) {
+				throw new IOException("Duplicate card on line " + aLineNumber);
+			}
+			seen |= 1L << ordinal;
+			deal.add(Card.get(ordinal));
+		}
+		if (deal.size() != Card.NUMBER_OF_CARDS) {
+			throw new IOException("Incomplete deal on line " + aLineNumber);
+		}
+		return deal;
+	}
+
+	private int parseOrdinal(String pToken) throws IOException {
+		int ordinal;
+		try {
+			ordinal = Integer.parseInt(pToken);
+		}
+		catch (NumberFormatException exception) {
+			throw new IOException("Invalid card '" + pToken + "' on line " + aLineNumber, exception);
+		}
+		if (ordinal < 0 || ordinal >= Card.NUMBER_OF_CARDS) {
+			throw new IOException("Invalid card '" + pToken + "' on line " + aLineNumber);
+		}
+		return ordinal;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (aRecords != null) {
+			aRecords.close();
+		}
+		else {
+			aLines.close();
+		}
+	}
+}
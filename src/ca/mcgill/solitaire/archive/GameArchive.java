@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import ca.mcgill.solitaire.auto.PlayingStrategy;
+import ca.mcgill.solitaire.model.GameModel;
+
+/**
+ * Read-only, random access to the games of an archive file written by a
+ * GameArchiveWriter. The file is memory-mapped, so retrieving any game takes
+ * the same time regardless of its position and of the size of the archive,
+ * and only the pages of the file that are used are read from disk.
+ * 
+ * An archive starts with the four bytes MAGIC, followed by the game records,
+ * in the format of RecordFormat. Each record starts with the deal, on 52
+ * bytes. The records are followed by the index, which holds the offset in the
+ * file of each record as a long, then by the trailer: the offset of the index
+ * and the number of games, as longs, and MAGIC again. All numbers are
+ * big-endian.
+ * 
+ * Because a single mapping cannot exceed 2 GB, the file is mapped in
+ * overlapping segments, where each segment extends far enough past the start
+ * of the next one to contain any record that starts in it.
+ */
+public final class GameArchive implements Closeable {
+	static final int MAGIC = 0x534F4C41; // "SOLA"
+
+	private static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+	private static final int TRAILER_SIZE = 2 * Long.BYTES + Integer.BYTES;
+
+	/*
+	 * Upper bound on the size of a record: the deal, then at most three bytes
+	 * for the number of moves, and two bytes per move.
+	 */
+	private static final int MAX_RECORD_SIZE = 52 + 3 + 2 * RecordFormat.MAX_MOVES;
+
+	private final FileChannel aChannel;
+	private final long aSegmentSize;
+	private final MappedByteBuffer[] aSegments;
+	private final long aIndexOffset;
+	private final long aNumberOfGames;
+
+	/**
+	 * Opens an archive.
+	 * 
+	 * @param pFile The archive file.
+	 * @throws IOException If the file cannot be read or is not a complete
+	 *     archive.
+	 * @pre pFile != null
+	 */
+	public GameArchive(Path pFile) throws IOException {
+		this(pFile, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/*
+	 * Opens an archive mapped in segments of pSegmentSize bytes, plus the
+	 * overlap. Smaller segments are only useful for testing.
+	 */
+	GameArchive(Path pFile, int pSegmentSize) throws IOException {
+		assert pFile != null && pSegmentSize > 0;
+		aChannel = FileChannel.open(pFile, StandardOpenOption.READ);
+		try {
+			long size = aChannel.size();
+			if (size < Integer.BYTES + TRAILER_SIZE) {
+				throw new IOException("Not a game archive: " + pFile);
+			}
+			aSegmentSize = pSegmentSize;
+			aSegments = new MappedByteBuffer[(int) ((size + pSegmentSize - 1) / pSegmentSize)];
+			for (int i = 0; i < aSegments.length; i++) {
+				long start = i * aSegmentSize;
+				long length = Math.min(size - start, aSegmentSize + MAX_RECORD_SIZE);
+				aSegments[i] = aChannel.map(FileChannel.MapMode.READ_ONLY, start, length);
+			}
+			ByteBuffer trailer = bufferAt(size - TRAILER_SIZE);
+			aIndexOffset = trailer.getLong();
+			aNumberOfGames = trailer.getLong();
+			if (bufferAt(0).getInt() != MAGIC || trailer.getInt() != MAGIC || aIndexOffset < Integer.BYTES ||
+					aNumberOfGames < 0 || aIndexOffset + aNumberOfGames * Long.BYTES != size - TRAILER_SIZE) {
+				throw new IOException("Not a game archive: " + pFile);
+			}
+		}
+		catch (IOException exception) {
+			aChannel.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * @return The number of games in the archive.
+	 */
+	public long getNumberOfGames() {
+		return aNumberOfGames;
+	}
+
+	/**
+	 * @param pIndex The index of a game, 0 being the first game written.
+	 * @return The record of the game.
+	 * @throws IOException If the record is corrupt.
+	 * @pre pIndex >= 0 && pIndex < getNumberOfGames()
+	 */
+	public GameRecord getRecord(long pIndex) throws IOException {
+		assert pIndex >= 0 && pIndex < aNumberOfGames;
+		long offset = bufferAt(aIndexOffset + pIndex * Long.BYTES).getLong();
+		if (offset < Integer.BYTES || offset >= aIndexOffset) {
+			throw new IOException("Corrupt index for game " + pIndex);
+		}
+		DataInputStream input = new DataInputStream(new BufferInputStream(bufferAt(offset)));
+		return RecordFormat.readRecord(input, input.readUnsignedByte());
+	}
+
+	/**
+	 * Creates a game model dealt like game pIndex of the archive, ready to be
+	 * played from its initial state.
+	 * 
+	 * @param pIndex The index of a game, 0 being the first game written.
+	 * @param pStrategy The strategy that the model will use for auto-play.
+	 * @return A new game model.
+	 * @throws IOException If the record is corrupt.
+	 * @pre pIndex >= 0 && pIndex < getNumberOfGames() && pStrategy != null
+	 */
+	public GameModel getGame(long pIndex, PlayingStrategy pStrategy) throws IOException {
+		assert pStrategy != null;
+		GameModel model = new GameModel(pStrategy);
+		model.reset(getRecord(pIndex).getDeal());
+		return model;
+	}
+
+	/*
+	 * A buffer positioned at pOffset in the file. Its content, from that
+	 * position on, is only guaranteed to extend over MAX_RECORD_SIZE bytes, or
+	 * up to the end of the file.
+	 */
+	private ByteBuffer bufferAt(long pOffset) {
+		int segment = (int) (pOffset / aSegmentSize);
+		ByteBuffer buffer = aSegments[segment].duplicate();
+		buffer.position((int) (pOffset - segment * aSegmentSize));
+		return buffer;
+	}
+
+	/**
+	 * Closes the file. Memory mappings are released when the archive is
+	 * garbage-collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		aChannel.close();
+	}
+
+	/*
+	 * Reads bytes from a buffer, from its position to its limit.
+	 */
+	private static final class BufferInputStream extends InputStream {
+		private final ByteBuffer aBuffer;
+
+		BufferInputStream(ByteBuffer pBuffer) {
+			aBuffer = pBuffer;
+		}
+
+		@Override
+		public int read() {
+			if (!aBuffer.hasRemaining()) {
+				return -1;
+			}
+			return aBuffer.get() & 0xFF;
+		}
+	}
+}
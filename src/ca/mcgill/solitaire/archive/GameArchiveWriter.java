@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a game archive file that can be read with random access by a
+ * GameArchive (see GameArchive for the format). The records are written as
+ * they are added, and the offsets of the records are spilled to a temporary
+ * file, so the memory used does not grow with the number of games. The index
+ * is appended to the archive when the writer is closed: until then, the file
+ * is not a valid archive.
+ */
+public final class GameArchiveWriter implements Closeable {
+	private final DataOutputStream aOutput;
+	private final Path aIndexFile;
+	private final DataOutputStream aIndex;
+	private final ByteArrayOutputStream aRecordBytes = new ByteArrayOutputStream();
+	private final DataOutputStream aRecord = new DataOutputStream(aRecordBytes);
+	private long aPosition;
+	private long aNumberOfGames;
+	private boolean aClosed;
+
+	/**
+	 * Creates a writer for a new archive, replacing pFile if it exists.
+	 * 
+	 * @param pFile The archive to create.
+	 * @throws IOException If the archive cannot be created.
+	 * @pre pFile != null
+	 */
+	public GameArchiveWriter(Path pFile) throws IOException {
+		assert pFile != null;
+		aOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(pFile)));
+		Path indexFile = null;
+		DataOutputStream index = null;
+		try {
+			indexFile = Files.createTempFile(pFile.toAbsolutePath().getParent(), pFile.getFileName().toString(),
+					".index");
+			index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)));
+			aOutput.writeInt(GameArchive.MAGIC);
+		}
+		catch (IOException exception) {
+			if (index != null) {
+				index.close();
+			}
+			if (indexFile != null) {
+				Files.deleteIfExists(indexFile);
+			}
+			aOutput.close();
+			throw exception;
+		}
+		aIndexFile = indexFile;
+		aIndex = index;
+		aPosition = Integer.BYTES;
+	}
+
+	/**
+	 * Appends pRecord to the archive.
+	 * 
+	 * @param pRecord The game to add.
+	 * @throws IOException If the record cannot be written.
+	 * @pre pRecord != null
+	 */
+	public void write(GameRecord pRecord) throws IOException {
+		assert pRecord != null;
+		aRecordBytes.reset();
+		RecordFormat.writeRecord(aRecord, pRecord);
+		aRecordBytes.writeTo(aOutput);
+		aIndex.writeLong(aPosition);
+		aPosition += aRecordBytes.size();
+		aNumberOfGames++;
+	}
+
+	/**
+	 * @return The number of games written so far.
+	 */
+	public long getNumberOfGames() {
+		return aNumberOfGames;
+	}
+
+	/**
+	 * Appends the index and the trailer to the archive, and closes it.
+	 * Closing a writer that is already closed has no effect.
+	 * 
+	 * @throws IOException If the archive cannot be completed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (aClosed) {
+			return;
+		}
+		aClosed = true;
+		try {
+			aIndex.close();
+			Files.copy(aIndexFile, aOutput);
+			aOutput.writeLong(aPosition);
+			aOutput.writeLong(aNumberOfGames);
+			aOutput.writeInt(GameArchive.MAGIC);
+		}
+		finally {
+			aOutput.close();
+			Files.deleteIfExists(aIndexFile);
+		}
+	}
+}
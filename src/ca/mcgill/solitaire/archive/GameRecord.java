@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.cards.Deck;
+import ca.mcgill.solitaire.model.CompactGameState;
+
+/**
+ * The complete record of a game: the order of the cards in the deck before
+ * dealing, and the moves played, encoded as in CompactGameState. A record is
+ * always consistent: it is checked when it is created that the deal contains
+ * every card once and that every move is legal. Immutable.
+ */
+public final class GameRecord {
+	private final List<Card> aDeal;
+	private final int[] aMoves;
+	private final byte[] aSources; // Location index each card was moved from
+
+	/**
+	 * Creates a record of the moves played in pGame, a game that was dealt
+	 * from a deck in the order pDeal.
+	 * 
+	 * @param pDeal The cards of the deck before dealing, as returned by
+	 *     iterating over the deck.
+	 * @param pGame The game played.
+	 * @throws IllegalArgumentException If pDeal is not a deck of 52 cards, or
+	 *     the moves of pGame cannot be played on pDeal.
+	 * @pre pDeal != null && pGame != null
+	 */
+	public GameRecord(Iterable<Card> pDeal, CompactGameState pGame) {
+		this(pDeal, movesOf(pGame));
+	}
+
+	/**
+	 * Creates a record of a game dealt from a deck in the order pDeal, in
+	 * which pMoves were played.
+	 * 
+	 * @param pDeal The cards of the deck before dealing, as returned by
+	 *     iterating over the deck.
+	 * @param pMoves The moves played, encoded as in CompactGameState.
+	 * @throws IllegalArgumentException If pDeal is not a deck of 52 cards, or
+	 *     pMoves cannot be played on pDeal.
+	 * @pre pDeal != null && pMoves != null
+	 */
+	public GameRecord(Iterable<Card> pDeal, int[] pMoves) {
+		assert pDeal != null && pMoves != null;
+		List<Card> deal = new ArrayList<>();
+		long seen = 0;
+		for (Card card : pDeal) {
+			if ((seen & 1L << card.ordinal()) != 0) {
+				throw new IllegalArgumentException("Card dealt twice: " + card);
+			}
+			seen |= 1L << card.ordinal();
+			deal.add(card);
+		}
+		if (deal.size() != Card.NUMBER_OF_CARDS) {
+			throw new IllegalArgumentException("Incomplete deal: " + deal.size() + " cards");
+		}
+		aDeal = Collections.unmodifiableList(deal);
+		aMoves = pMoves.clone();
+		aSources = new byte[aMoves.length];
+		CompactGameState state = newGame();
+		int[] legalMoves = new int[CompactGameState.MAX_MOVES];
+		for (int i = 0; i < aMoves.length; i++) {
+			if (!contains(legalMoves, state.generateMoves(legalMoves), aMoves[i])) {
+				throw new IllegalArgumentException("Illegal move at index " + i);
+			}
+			aSources[i] = (byte) state.getLocation(CompactGameState.moveCard(aMoves[i]));
+			state.perform(aMoves[i]);
+		}
+	}
+
+	private static int[] movesOf(CompactGameState pGame) {
+		assert pGame != null;
+		int[] moves = new int[pGame.getNumberOfMoves()];
+		for (int i = 0; i < moves.length; i++) {
+			moves[i] = pGame.getMove(i);
+		}
+		return moves;
+	}
+
+	private static boolean contains(int[] pMoves, int pCount, int pMove) {
+		for (int i = 0; i < pCount; i++) {
+			if (pMoves[i] == pMove) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return The cards of the deck before dealing, from the bottom of the
+	 *     deck to its top. Unmodifiable.
+	 */
+	public List<Card> getDeal() {
+		return aDeal;
+	}
+
+	/**
+	 * @return The number of moves played.
+	 */
+	public int getNumberOfMoves() {
+		return aMoves.length;
+	}
+
+	/**
+	 * @param pIndex The index of a move, 0 being the first move played.
+	 * @return The move, encoded as in CompactGameState.
+	 * @pre pIndex >= 0 && pIndex < getNumberOfMoves()
+	 */
+	public int getMove(int pIndex) {
+		assert pIndex >= 0 && pIndex < aMoves.length;
+		return aMoves[pIndex];
+	}
+
+	/*
+	 * The location index that the card of move pIndex was moved from.
+	 */
+	int getSource(int pIndex) {
+		return aSources[pIndex];
+	}
+
+	/**
+	 * @return A new game in the initial state of this record.
+	 */
+	public CompactGameState newGame() {
+		Deck deck = new Deck();
+		deck.restore(aDeal);
+		return new CompactGameState(deck);
+	}
+
+	/**
+	 * @return A new game in which all the moves of this record have been
+	 *     played.
+	 */
+	public CompactGameState replay() {
+		CompactGameState state = newGame();
+		for (int move : aMoves) {
+			state.perform(move);
+		}
+		return state;
+	}
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Reads, one after the other, the game records of a stream written by a
+ * GameRecordWriter. Every record is checked as it is read: the deal must
+ * contain every card once, and every move must be legal and come from the
+ * location recorded in the stream.
+ */
+public final class GameRecordReader implements Closeable {
+	private final DataInputStream aInput;
+
+	/**
+	 * Creates a reader and reads the header of the stream.
+	 * 
+	 * @param pInput The stream to read from. It is closed when this reader is
+	 *     closed.
+	 * @throws IOException If the header cannot be read or is not that of a
+	 *     stream of game records.
+	 * @pre pInput != null
+	 */
+	public GameRecordReader(InputStream pInput) throws IOException {
+		assert pInput != null;
+		aInput = new DataInputStream(new BufferedInputStream(pInput));
+		try {
+			if (aInput.readInt() != RecordFormat.MAGIC) {
+				throw new IOException("Not a stream of game records");
+			}
+		}
+		catch (IOException exception) {
+			aInput.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Reads the next record of the stream.
+	 * 
+	 * @return The next record, or empty if the end of the stream was reached.
+	 * @throws IOException If the record cannot be read, is truncated, or is
+	 *     not consistent.
+	 */
+	public Optional<GameRecord> read() throws IOException {
+		int first = aInput.read();
+		if (first < 0) {
+			return Optional.empty();
+		}
+		return Optional.of(RecordFormat.readRecord(aInput, first));
+	}
+
+	@Override
+	public void close() throws IOException {
+		aInput.close();
+	}
+}
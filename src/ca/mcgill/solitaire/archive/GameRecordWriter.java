@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes game records to a stream in a compact binary format (see
+ * RecordFormat), one after the other. The output is buffered: it is only
+ * guaranteed to be written once the writer is flushed or closed.
+ */
+public final class GameRecordWriter implements Closeable {
+	private final DataOutputStream aOutput;
+	private long aNumberOfRecords;
+
+	/**
+	 * Creates a writer and writes the header of the stream.
+	 * 
+	 * @param pOutput The stream to write to. It is closed when this writer is
+	 *     closed.
+	 * @throws IOException If the header cannot be written.
+	 * @pre pOutput != null
+	 */
+	public GameRecordWriter(OutputStream pOutput) throws IOException {
+		assert pOutput != null;
+		aOutput = new DataOutputStream(new BufferedOutputStream(pOutput));
+		try {
+			aOutput.writeInt(RecordFormat.MAGIC);
+		}
+		catch (IOException exception) {
+			aOutput.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Appends pRecord to the stream.
+	 * 
+	 * @param pRecord The record to write.
+	 * @throws IOException If the record cannot be written.
+	 * @pre pRecord != null
+	 */
+	public void write(GameRecord pRecord) throws IOException {
+		assert pRecord != null;
+		RecordFormat.writeRecord(aOutput, pRecord);
+		aNumberOfRecords++;
+	}
+
+	/**
+	 * @return The number of records written so far.
+	 */
+	public long getNumberOfRecords() {
+		return aNumberOfRecords;
+	}
+
+	/**
+	 * Writes any buffered output to the underlying stream.
+	 * 
+	 * @throws IOException If the output cannot be written.
+	 */
+	public void flush() throws IOException {
+		aOutput.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		aOutput.close();
+	}
+}
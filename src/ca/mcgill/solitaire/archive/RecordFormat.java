@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.model.CompactGameState;
+
+/**
+ * Constants and helpers shared by the writers and readers of game records and
+ * game archives.
+ * 
+ * A stream of game records starts with the four bytes MAGIC, followed by the
+ * records one after the other. Each record is made of the 52 card ordinals of
+ * the deal, one per byte, followed by the number of moves, followed by the
+ * moves. Each move is the ordinal of the card moved, the location index of its
+ * source and the location index of its destination, packed as MOVE_CARD_BITS,
+ * then MOVE_LOCATION_BITS and MOVE_LOCATION_BITS bits. The number of moves and
+ * each move are written as varints: seven bits per byte, least significant
+ * first, with the high bit of each byte set if more bytes follow. A move thus
+ * takes two bytes, and a complete game typically takes about 200 bytes.
+ */
+final class RecordFormat {
+	static final int MAGIC = 0x534F4C52; // "SOLR"
+	static final int MOVE_CARD_BITS = 6;
+	static final int MOVE_LOCATION_BITS = 4;
+
+	/*
+	 * Upper bound on the number of moves of a game accepted by readers, to
+	 * detect corrupt data before allocating memory for the moves.
+	 */
+	static final int MAX_MOVES = 1 << 16;
+
+	private static final int CARD_MASK = (1 << MOVE_CARD_BITS) - 1;
+	private static final int LOCATION_MASK = (1 << MOVE_LOCATION_BITS) - 1;
+	private static final int VARINT_BITS = 7;
+	private static final int VARINT_MASK = (1 << VARINT_BITS) - 1;
+	private static final int VARINT_MORE = 1 << VARINT_BITS;
+	private static final int MAX_VARINT_SHIFT = 28;
+	private static final int MAX_LAST_VARINT_BYTE = Integer.MAX_VALUE >>> MAX_VARINT_SHIFT;
+
+	private RecordFormat() {}
+
+	/*
+	 * Writes pRecord, without the header of the stream.
+	 */
+	static void writeRecord(DataOutput pOutput, GameRecord pRecord) throws IOException {
+		for (Card card : pRecord.getDeal()) {
+			pOutput.writeByte(card.ordinal());
+		}
+		writeVarint(pOutput, pRecord.getNumberOfMoves());
+		for (int i = 0; i < pRecord.getNumberOfMoves(); i++) {
+			int move = pRecord.getMove(i);
+			writeVarint(pOutput, packMove(CompactGameState.moveCard(move), pRecord.getSource(i),
+					CompactGameState.moveDestination(move)));
+		}
+	}
+
+	/*
+	 * Reads a record whose first byte, pFirstByte, was already read from
+	 * pInput, and checks that it is consistent.
+	 */
+	static GameRecord readRecord(DataInput pInput, int pFirstByte) throws IOException {
+		List<Card> deal = new ArrayList<>(Card.NUMBER_OF_CARDS);
+		deal.add(readCard(pFirstByte));
+		for (int i = 1; i < Card.NUMBER_OF_CARDS; i++) {
+			deal.add(readCard(pInput.readUnsignedByte()));
+		}
+		int numberOfMoves = readVarint(pInput);
+		if (numberOfMoves > MAX_MOVES) {
+			throw new IOException("Invalid number of moves in game record");
+		}
+		int[] moves = new int[numberOfMoves];
+		int[] sources = new int[numberOfMoves];
+		for (int i = 0; i < numberOfMoves; i++) {
+			int move = readVarint(pInput);
+			if (destination(move) >= CompactGameState.NUMBER_OF_LOCATIONS) {
+				throw new IOException("Invalid move in game record");
+			}
+			moves[i] = CompactGameState.encodeMove(card(move), destination(move));
+			sources[i] = source(move);
+		}
+		GameRecord record;
+		try {
+			record = new GameRecord(deal, moves);
+		}
+		catch (IllegalArgumentException exception) {
+			throw new IOException("Inconsistent game record", exception);
+		}
+		for (int i = 0; i < numberOfMoves; i++) {
+			if (record.getSource(i) != sources[i]) {
+				throw new IOException("Inconsistent game record: wrong source for move " + i);
+			}
+		}
+		return record;
+	}
+
+	private static Card readCard(int pOrdinal) throws IOException {
+		if (pOrdinal >= Card.NUMBER_OF_CARDS) {
+			throw new IOException("Invalid card in game record");
+		}
+		return Card.get(pOrdinal);
+	}
+
+	static int packMove(int pCard, int pSource, int pDestination) {
+		return pCard | pSource << MOVE_CARD_BITS | pDestination << MOVE_CARD_BITS + MOVE_LOCATION_BITS;
+	}
+
+	static int card(int pPackedMove) {
+		return pPackedMove & CARD_MASK;
+	}
+
+	static int source(int pPackedMove) {
+		return pPackedMove >>> MOVE_CARD_BITS & LOCATION_MASK;
+	}
+
+	static int destination(int pPackedMove) {
+		return pPackedMove >>> MOVE_CARD_BITS + MOVE_LOCATION_BITS;
+	}
+
+	/*
+	 * Writes pValue, which must not be negative, as a varint.
+	 */
+	static void writeVarint(DataOutput pOutput, int pValue) throws IOException {
+		assert pValue >= 0;
+		int value = pValue;
+		while (value > VARINT_MASK) {
+			pOutput.writeByte(value & VARINT_MASK | VARINT_MORE);
+			value >>>= VARINT_BITS;
+		}
+		pOutput.writeByte(value);
+	}
+
+	/*
+	 * Reads a varint written by writeVarint. A varint whose value would not
+	 * fit in a non-negative int is malformed.
+	 */
+	static int readVarint(DataInput pInput) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift <= MAX_VARINT_SHIFT; shift += VARINT_BITS) {
+			int next = pInput.readUnsignedByte();
+			if (shift == MAX_VARINT_SHIFT && next > MAX_LAST_VARINT_BYTE) {
+				break;
+			}
+			value |= (next & VARINT_MASK) << shift;
+			if ((next & VARINT_MORE) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+}
@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+import ca.mcgill.solitaire.archive.DealReader;
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.model.GameModel;
+
+/**
+ * Plays a batch of games in headless mode, sharding the games across a pool of
+ * worker threads. Each worker owns its own game model and playing strategy, so
+ * workers never share mutable state. The partial results of each worker are
+ * merged once all games have been played.
+ * 
+ * Games can either be dealt randomly, in which case each worker shuffles with
+ * its own split of a SplittableRandom, or be derived from a base seed, in which
+ * case game number i is dealt with seed base + i. Seeded runs play exactly the
+ * same deals regardless of the number of workers.
+ * 
+ * Games can also be replayed from a corpus of deals. In that case, a producer
+ * thread reads the deals and hands them to the workers through a bounded
+ * queue, so that reading the corpus overlaps with playing the games, while
+ * only a few deals per worker are held in memory at any time. Each deal is
+ * played by whichever worker takes it first.
+ * 
+ * In addition to the merged Result, the outcome of every game is recorded, as
+ * soon as it is played, in a GameStatistics object that can be read while the
+ * simulation is running.
+ */
+public final class BatchSimulator {
+	private static final int DEALS_PER_WORKER = 16;
+
+	/*
+	 * Marks the end of the corpus in the queue of deals. Compared by identity.
+	 */
+	private static final List<Card> END_OF_DEALS = new ArrayList<>();
+
+	private final Supplier<PlayingStrategy> aStrategyFactory;
+	private final int aNumberOfWorkers;
+	private final GameStatistics aStatistics;
+
+	/**
+	 * Creates a simulator that records the games it plays in a new
+	 * GameStatistics.
+	 * 
+	 * @param pStrategyFactory Creates the strategy used by each worker. Called
+	 *     once per worker.
+	 * @param pNumberOfWorkers The number of threads to use.
+	 * @pre pStrategyFactory != null && pNumberOfWorkers > 0
+	 */
+	public BatchSimulator(Supplier<PlayingStrategy> pStrategyFactory, int pNumberOfWorkers) {
+		this(pStrategyFactory, pNumberOfWorkers, new GameStatistics());
+	}
+
+	/**
+	 * Creates a simulator.
+	 * 
+	 * @param pStrategyFactory Creates the strategy used by each worker. Called
+	 *     once per worker.
+	 * @param pNumberOfWorkers The number of threads to use.
+	 * @param pStatistics Where to record the outcome of every game played.
+	 * @pre pStrategyFactory != null && pNumberOfWorkers > 0 && pStatistics != null
+	 */
+	public BatchSimulator(Supplier<PlayingStrategy> pStrategyFactory, int pNumberOfWorkers,
+			GameStatistics pStatistics) {
+		assert pStrategyFactory != null && pNumberOfWorkers > 0 && pStatistics != null;
+		aStrategyFactory = pStrategyFactory;
+		aNumberOfWorkers = pNumberOfWorkers;
+		aStatistics = pStatistics;
+	}
+
+	/**
+	 * @return The statistics of all the games played by this simulator so far,
+	 *     including those of runs in progress.
+	 */
+	public GameStatistics getStatistics() {
+		return aStatistics;
+	}
+
+	/**
+	 * Plays pNumberOfGames randomly dealt games and returns the merged result.
+	 * This method blocks until all games are completed.
+	 * 
+	 * @param pNumberOfGames The number of games to play.
+	 * @return The aggregated outcome of all the games played.
+	 * @throws InterruptedException If the calling thread is interrupted while
+	 *     waiting for the workers.
+	 * @pre pNumberOfGames >= 0
+	 */
+	public Result run(int pNumberOfGames) throws InterruptedException {
+		SplittableRandom random = new SplittableRandom();
+		return run(pNumberOfGames, () -> {
+			SplittableRandom workerRandom = random.split();
+			return (model, game) -> model.reset(workerRandom);
+		});
+	}
+
+	/**
+	 * Plays pNumberOfGames games where game number i (starting at 0) is dealt
+	 * with seed pBaseSeed + i, and returns the merged result. This method
+	 * blocks until all games are completed.
+	 * 
+	 * @param pNumberOfGames The number of games to play.
+	 * @param pBaseSeed The seed of the first game.
+	 * @return The aggregated outcome of all the games played.
+	 * @throws InterruptedException If the calling thread is interrupted while
+	 *     waiting for the workers.
+	 * @pre pNumberOfGames >= 0
+	 */
+	public Result run(int pNumberOfGames, long pBaseSeed) throws InterruptedException {
+		return run(pNumberOfGames, () -> (model, game) -> model.reset(pBaseSeed + game));
+	}
+
+	/**
+	 * Plays every deal of pDeals, in any order, and returns the merged result.
+	 * This method blocks until all games are completed.
+	 * 
+	 * @param pDeals The corpus of deals to play. It is read until its end, but
+	 *     not closed.
+	 * @return The aggregated outcome of all the games played.
+	 * @throws IOException If the corpus cannot be read or contains an invalid
+	 *     deal. The games played until then are recorded in the statistics.
+	 * @throws InterruptedException If the calling thread is interrupted while
+	 *     waiting for the workers.
+	 * @pre pDeals != null
+	 */
+	public Result run(DealReader pDeals) throws IOException, InterruptedException {
+		assert pDeals != null;
+		long start = System.nanoTime();
+		BlockingQueue<List<Card>> deals = new ArrayBlockingQueue<>(aNumberOfWorkers * DEALS_PER_WORKER);
+		List<Future<Result>> shards = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(aNumberOfWorkers + 1)) {
+			Future<?> producer = executor.submit(() -> produce(pDeals, deals));
+			for (int worker = 0; worker < aNumberOfWorkers; worker++) {
+				shards.add(executor.submit(() -> playQueue(deals)));
+			}
+			try {
+				Result total = new Result(0, 0, 0, 0);
+				for (Future<Result> shard : shards) {
+					total = total.merge(shard.get());
+				}
+				producer.get();
+				return total.withElapsedTime(System.nanoTime() - start);
+			}
+			catch (ExecutionException exception) {
+				executor.shutdownNow();
+				if (exception.getCause() instanceof IOException) {
+					throw (IOException) exception.getCause();
+				}
+				throw new IllegalStateException("A simulation worker failed", exception.getCause());
+			}
+		}
+	}
+
+	/*
+	 * Reads the deals into the queue, followed by one end marker per worker,
+	 * even if the corpus cannot be read.
+	 */
+	private Void produce(DealReader pDeals, BlockingQueue<List<Card>> pQueue)
+			throws IOException, InterruptedException {
+		try {
+			Optional<List<Card>> deal = pDeals.read();
+			while (deal.isPresent()) {
+				pQueue.put(deal.get());
+				deal = pDeals.read();
+			}
+		}
+		finally {
+			for (int worker = 0; worker < aNumberOfWorkers; worker++) {
+				pQueue.put(END_OF_DEALS);
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * pDealers supplies, for each worker, the function used to deal game
+	 * number i on the worker's model. It is called on the calling thread.
+	 */
+	private Result run(int pNumberOfGames, Supplier<ObjIntConsumer<GameModel>> pDealers)
+			throws InterruptedException {
+		assert pNumberOfGames >= 0;
+		long start = System.nanoTime();
+		List<Future<Result>> shards = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(aNumberOfWorkers)) {
+			for (int worker = 0; worker < aNumberOfWorkers; worker++) {
+				int first = shardStart(worker, pNumberOfGames);
+				int last = shardStart(worker + 1, pNumberOfGames);
+				ObjIntConsumer<GameModel> dealer = pDealers.get();
+				shards.add(executor.submit(() -> playShard(first, last, dealer)));
+			}
+			Result total = new Result(0, 0, 0, 0);
+			for (Future<Result> shard : shards) {
+				total = total.merge(shard.get());
+			}
+			return total.withElapsedTime(System.nanoTime() - start);
+		}
+		catch (ExecutionException exception) {
+			throw new IllegalStateException("A simulation worker failed", exception.getCause());
+		}
+	}
+
+	/*
+	 * Index of the first game of a shard, such that shard sizes differ by at
+	 * most one game.
+	 */
+	private int shardStart(int pWorker, int pNumberOfGames) {
+		return (int) ((long) pNumberOfGames * pWorker / aNumberOfWorkers);
+	}
+
+	private Result playShard(int pFirstGame, int pLastGame, ObjIntConsumer<GameModel> pDealer) {
+		GameModel model = new GameModel(aStrategyFactory.get());
+		int wins = 0;
+		long totalScore = 0;
+		for (int game = pFirstGame; game < pLastGame; game++) {
+			long start = System.nanoTime();
+			pDealer.accept(model, game);
+			int score = play(model, start);
+			totalScore += score;
+			if (score == Card.NUMBER_OF_CARDS) {
+				wins++;
+			}
+		}
+		return new Result(pLastGame - pFirstGame, wins, totalScore, 0);
+	}
+
+	private Result playQueue(BlockingQueue<List<Card>> pDeals) throws InterruptedException {
+		GameModel model = new GameModel(aStrategyFactory.get());
+		int games = 0;
+		int wins = 0;
+		long totalScore = 0;
+		List<Card> deal = pDeals.take();
+		while (deal != END_OF_DEALS) {
+			long start = System.nanoTime();
+			model.reset(deal);
+			int score = play(model, start);
+			games++;
+			totalScore += score;
+			if (score == Card.NUMBER_OF_CARDS) {
+				wins++;
+			}
+			deal = pDeals.take();
+		}
+		return new Result(games, wins, totalScore, 0);
+	}
+
+	/*
+	 * Plays the game dealt on pModel to the end, records it as started at
+	 * pStart, and returns its score.
+	 */
+	private int play(GameModel pModel, long pStart) {
+		int moves = 0;
+		while (pModel.tryToAutoPlay()) {
+			moves++;
+		}
+		int score = pModel.getScore();
+		aStatistics.record(score, moves, System.nanoTime() - pStart);
+		return score;
+	}
+
+	/**
+	 * The aggregated outcome of a batch of games. Immutable.
+	 */
+	public static final class Result {
+		private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+		private final long aNumberOfGames;
+		private final long aNumberOfWins;
+		private final long aTotalScore;
+		private final long aElapsedNanos;
+
+		Result(long pNumberOfGames, long pNumberOfWins, long pTotalScore, long pElapsedNanos) {
+			aNumberOfGames = pNumberOfGames;
+			aNumberOfWins = pNumberOfWins;
+			aTotalScore = pTotalScore;
+			aElapsedNanos = pElapsedNanos;
+		}
+
+		Result merge(Result pResult) {
+			return new Result(aNumberOfGames + pResult.aNumberOfGames, aNumberOfWins + pResult.aNumberOfWins,
+					aTotalScore + pResult.aTotalScore, Math.max(aElapsedNanos, pResult.aElapsedNanos));
+		}
+
+		Result withElapsedTime(long pElapsedNanos) {
+			return new Result(aNumberOfGames, aNumberOfWins, aTotalScore, pElapsedNanos);
+		}
+
+		/**
+		 * @return The number of games played.
+		 */
+		public long getNumberOfGames() {
+			return aNumberOfGames;
+		}
+
+		/**
+		 * @return The number of games in which all cards reached the
+		 *     foundations.
+		 */
+		public long getNumberOfWins() {
+			return aNumberOfWins;
+		}
+
+		/**
+		 * @return The sum of the scores of all the games played.
+		 */
+		public long getTotalScore() {
+			return aTotalScore;
+		}
+
+		/**
+		 * @return The fraction of games won, between 0 and 1.
+		 */
+		public double getWinRatio() {
+			if (aNumberOfGames == 0) {
+				return 0;
+			}
+			return (double) aNumberOfWins / aNumberOfGames;
+		}
+
+		/**
+		 * @return The average score per game.
+		 */
+		public double getAverageScore() {
+			if (aNumberOfGames == 0) {
+				return 0;
+			}
+			return (double) aTotalScore / aNumberOfGames;
+		}
+
+		/**
+		 * @return The wall-clock time taken to play all the games, in
+		 *     nanoseconds.
+		 */
+		public long getElapsedNanos() {
+			return aElapsedNanos;
+		}
+
+		/**
+		 * @return The throughput of the simulation, in games per second of
+		 *     wall-clock time.
+		 */
+		public double getGamesPerSecond() {
+			if (aElapsedNanos == 0) {
+				return 0;
+			}
+			return aNumberOfGames * NANOS_PER_SECOND / aElapsedNanos;
+		}
+	}
+}
@@ -20,10 +20,19 @@
  *******************************************************************************/
 package ca.mcgill.solitaire.auto;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import ca.mcgill.solitaire.archive.DealReader;
+import ca.mcgill.solitaire.cards.Card;
 import ca.mcgill.solitaire.model.GameModel;
 
 /**
- * Plays N games and, for each game, undo all moves and redo them.
+ * Plays N games and, for each game, undo all moves and redo them. The games
+ * are either dealt randomly or replayed from a corpus of deals.
  */
 public final class CrashTest {
 	private static final int NUMBER_OF_GAMES = 1000;
@@ -31,18 +40,35 @@ public final class CrashTest {
 	private CrashTest() {}
 
 	/**
-	 * @param pArgs Not used.
+	 * @param pArgs Optionally, the path of a corpus of deals (see DealReader)
+	 *     to play instead of random deals.
+	 * @throws IOException If the corpus of deals cannot be read.
 	 */
-	public static void main(String[] pArgs) {
+	public static void main(String[] pArgs) throws IOException {
 		GameModel model = new GameModel(new GreedyPlayingStrategy());
-		for (int i = 0; i < NUMBER_OF_GAMES; i++) {
-			playGame(model);
+		if (pArgs.length > 0) {
+			try (DealReader deals = new DealReader(Files.newInputStream(Path.of(pArgs[0])))) {
+				Optional<List<Card>> deal = deals.read();
+				while (deal.isPresent()) {
+					model.reset(deal.get());
+					playGame(model);
+					deal = deals.read();
+				}
+			}
+		}
+		else {
+			for (int i = 0; i < NUMBER_OF_GAMES; i++) {
+				model.reset();
+				playGame(model);
+			}
 		}
 		System.out.println("Runs completed.");
 	}
 
+	/*
+	 * Plays the game dealt on pModel, undoes all moves, and plays it again.
+	 */
 	private static void playGame(GameModel pModel) {
-		pModel.reset();
 		boolean advanced = true;
 		while (advanced) {
 			advanced = pModel.tryToAutoPlay();
@@ -20,44 +20,255 @@
  *******************************************************************************/
 package ca.mcgill.solitaire.auto;
 
-import ca.mcgill.solitaire.model.GameModel;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import ca.mcgill.solitaire.archive.DealReader;
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy.Substrategy;
 
 /**
- * Plays N games and computes the number of wins.
+ * Plays N games and computes the number of wins. The games are played in
+ * parallel by a BatchSimulator. While the games are played, the progress of
+ * the simulation is printed every few seconds, and at the end, the
+ * distributions of the scores, moves and times per game are summarized by
+ * their percentiles.
+ * 
+ * In replay mode, the games are dealt from a corpus file instead, so that
+ * different strategies can be compared on exactly the same deals.
+ * 
+ * In tuning mode, a StrategyTuner searches for the pipeline of greedy
+ * substrategies that wins the most games per CPU second on a corpus of seeded
+ * deals, and prints its configuration string, which can then be given as the
+ * strategy.
+ * 
+ * With the greedy strategy, the substrategies tried are also recorded in a
+ * SubstrategyStatistics, which is registered with the platform MBean server
+ * so that it can be monitored with a JMX client during the simulation, and
+ * printed at the end.
  */
 public final class Driver {
-	private static final int ALL_CARDS = 52;
 	private static final int NUMBER_OF_GAMES = 10000;
+	private static final String REPLAY = "replay";
+	private static final String TUNE = "tune";
+	private static final String NO_SEED = "-";
+	private static final String GREEDY_CONFIGURATION = "greedy:";
+	private static final int NUMBER_OF_TUNING_GAMES = 2000;
+	private static final String GREEDY = "greedy";
+	private static final String MBEAN_NAME = "ca.mcgill.solitaire:type=SubstrategyStatistics";
 	private static final int TO_PERCENT = 100;
+	private static final int PROGRESS_SECONDS = 5;
+	private static final long NANOS_PER_MICRO = 1000;
+	private static final double MEDIAN = 50;
+	private static final double P90 = 90;
+	private static final double P99 = 99;
+	private static final SubstrategyStatistics SUBSTRATEGY_STATISTICS = new SubstrategyStatistics();
 
 	private Driver() {}
 
 	/**
-	 * @param pArgs Not used.
+	 * @param pArgs Optionally, the number of games to play, followed by the
+	 *     number of worker threads to use, followed by a deal seed, followed by
+	 *     the strategy to use, "greedy", "solver" or "montecarlo". By default,
+	 *     plays 10000 random games with the greedy strategy, using one worker
+	 *     per available processor. With a seed, the same deals are played on
+	 *     every run. To give a strategy for random deals, give "-" as the
+	 *     seed. Alternatively, "replay" followed by the path of a corpus of
+	 *     deals (see DealReader), optionally followed by the number of worker
+	 *     threads and the strategy, plays every deal of the corpus. Or "tune",
+	 *     optionally followed by the number of games, the number of worker
+	 *     threads and a seed, tunes the greedy strategy on these games. The
+	 *     greedy strategy can be given a pipeline of substrategies as
+	 *     "greedy:" followed by its configuration string.
+	 * @throws InterruptedException If the simulation is interrupted.
+	 * @throws IOException If the corpus of deals cannot be read.
+	 * @throws IllegalArgumentException If the strategy is unknown.
+	 */
+	public static void main(String[] pArgs) throws InterruptedException, IOException {
+		if (pArgs.length > 1 && pArgs[0].equals(REPLAY)) {
+			replay(pArgs);
+			return;
+		}
+		if (pArgs.length > 0 && pArgs[0].equals(TUNE)) {
+			tune(pArgs);
+			return;
+		}
+		int numberOfGames = NUMBER_OF_GAMES;
+		int numberOfWorkers = Runtime.getRuntime().availableProcessors();
+		if (pArgs.length > 0) {
+			numberOfGames = Integer.parseInt(pArgs[0]);
+		}
+		if (pArgs.length > 1) {
+			numberOfWorkers = Integer.parseInt(pArgs[1]);
+		}
+		Supplier<PlayingStrategy> strategy = strategy(GREEDY);
+		if (pArgs.length > 3) {
+			strategy = strategy(pArgs[3]);
+		}
+		BatchSimulator simulator = new BatchSimulator(strategy, numberOfWorkers);
+		ScheduledExecutorService monitor = startMonitor(simulator.getStatistics());
+		BatchSimulator.Result result;
+		try {
+			if (pArgs.length > 2 && !pArgs[2].equals(NO_SEED)) {
+				result = simulator.run(numberOfGames, Long.parseLong(pArgs[2]));
+			}
+			else {
+				result = simulator.run(numberOfGames);
+			}
+		}
+		finally {
+			monitor.shutdownNow();
+		}
+		report(result, simulator.getStatistics(), numberOfWorkers);
+	}
+
+	/*
+	 * Plays the corpus of deals of pArgs[1] with the workers and strategy of
+	 * pArgs[2] and pArgs[3].
+	 */
+	private static void replay(String[] pArgs) throws InterruptedException, IOException {
+		int numberOfWorkers = Runtime.getRuntime().availableProcessors();
+		if (pArgs.length > 2) {
+			numberOfWorkers = Integer.parseInt(pArgs[2]);
+		}
+		Supplier<PlayingStrategy> strategy = strategy(GREEDY);
+		if (pArgs.length > 3) {
+			strategy = strategy(pArgs[3]);
+		}
+		BatchSimulator simulator = new BatchSimulator(strategy, numberOfWorkers);
+		ScheduledExecutorService monitor = startMonitor(simulator.getStatistics());
+		BatchSimulator.Result result;
+		try (DealReader deals = new DealReader(Files.newInputStream(Path.of(pArgs[1])))) {
+			result = simulator.run(deals);
+		}
+		finally {
+			monitor.shutdownNow();
+		}
+		report(result, simulator.getStatistics(), numberOfWorkers);
+	}
+
+	/*
+	 * Tunes the greedy strategy on the number of games, with the number of
+	 * workers and the seed of pArgs[1], pArgs[2] and pArgs[3].
+	 */
+	private static void tune(String[] pArgs) throws InterruptedException {
+		int numberOfGames = NUMBER_OF_TUNING_GAMES;
+		int numberOfWorkers = Runtime.getRuntime().availableProcessors();
+		long seed = 0;
+		if (pArgs.length > 1) {
+			numberOfGames = Integer.parseInt(pArgs[1]);
+		}
+		if (pArgs.length > 2) {
+			numberOfWorkers = Integer.parseInt(pArgs[2]);
+		}
+		if (pArgs.length > 3) {
+			seed = Long.parseLong(pArgs[3]);
+		}
+		StrategyTuner tuner = new StrategyTuner(numberOfGames, seed, numberOfWorkers);
+		StrategyTuner.Evaluation best = tuner.tune(new GreedyPlayingStrategy().getSubstrategies());
+		System.out.println(String.format("Evaluated     %d pipelines", tuner.getEvaluations().size()));
+		System.out.println("Best          " + best);
+		System.out.println("Strategy      " + GREEDY_CONFIGURATION +
+				GreedyPlayingStrategy.toConfiguration(best.getSubstrategies()));
+	}
+
+	/*
+	 * The strategy named pName. Throws IllegalArgumentException if there is
+	 * no such strategy, so that a misspelled name does not silently play
+	 * another strategy.
 	 */
-	public static void main(String[] pArgs) {
-		int total = 0;
-		int totalWon = 0;
-		GameModel model = new GameModel(new GreedyPlayingStrategy());
-		for (int i = 0; i < NUMBER_OF_GAMES; i++) {
-			playGame(model);
-			int score = model.getScore();
-			total += score;
-			if (score == ALL_CARDS) {
-				totalWon++;
+	private static Supplier<PlayingStrategy> strategy(String pName) {
+		if (pName.equals(GREEDY)) {
+			return () -> new GreedyPlayingStrategy(SUBSTRATEGY_STATISTICS);
+		}
+		if (pName.equals("solver")) {
+			return SolvingPlayingStrategy::new;
+		}
+		if (pName.equals("montecarlo")) {
+			return MonteCarloPlayingStrategy::new;
+		}
+		if (pName.startsWith(GREEDY_CONFIGURATION)) {
+			GreedyPlayingStrategy.Builder builder = new GreedyPlayingStrategy.Builder()
+					.configure(pName.substring(GREEDY_CONFIGURATION.length())).instrument(SUBSTRATEGY_STATISTICS);
+			return builder::build;
+		}
+		throw new IllegalArgumentException("Unknown strategy: " + pName);
+	}
+
+	/*
+	 * Prints the progress of the simulation every few seconds, until the
+	 * returned executor is shut down, and exposes the substrategy statistics
+	 * through JMX.
+	 */
+	private static ScheduledExecutorService startMonitor(GameStatistics pStatistics) {
+		registerSubstrategyStatistics();
+		ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor();
+		monitor.scheduleAtFixedRate(() -> System.out.println(String.format("Progress      %d games, %.1f%% won",
+				pStatistics.getNumberOfGames(), winRatio(pStatistics) * TO_PERCENT)),
+				PROGRESS_SECONDS, PROGRESS_SECONDS, TimeUnit.SECONDS);
+		return monitor;
+	}
+
+	private static void report(BatchSimulator.Result pResult, GameStatistics pStatistics, int pNumberOfWorkers) {
+		System.out.println(String.format("Ratio won     %d/%d=%.1f%%", pResult.getNumberOfWins(),
+				pResult.getNumberOfGames(), pResult.getWinRatio() * TO_PERCENT));
+		System.out.println(String.format("Average score %d/%d=%.1f", pResult.getTotalScore(),
+				pResult.getNumberOfGames(), pResult.getAverageScore()));
+		System.out.println(String.format("Throughput    %.0f games/s on %d workers", pResult.getGamesPerSecond(),
+				pNumberOfWorkers));
+		System.out.println("Score         " + percentiles(pStatistics.getScores().snapshot(), 1));
+		System.out.println("Moves/game    " + percentiles(pStatistics.getMoves().snapshot(), 1));
+		System.out.println("Time/game us  " + percentiles(pStatistics.getTimes().snapshot(), NANOS_PER_MICRO));
+		if (wasGreedy()) {
+			System.out.print(SUBSTRATEGY_STATISTICS.report());
+		}
+	}
+
+	/*
+	 * True if any substrategy was tried, that is, if the games were played
+	 * with a greedy strategy, whatever its pipeline.
+	 */
+	private static boolean wasGreedy() {
+		for (Substrategy substrategy : Substrategy.values()) {
+			if (SUBSTRATEGY_STATISTICS.getInvocations(substrategy) > 0) {
+				return true;
 			}
 		}
-		System.out.println(String.format("Ratio won     %d/%d=%.1f%%", totalWon, NUMBER_OF_GAMES,
-				((double) totalWon) / ((double) NUMBER_OF_GAMES) * TO_PERCENT));
-		System.out.println(String.format("Average score %d/%d=%.1f", total, NUMBER_OF_GAMES,
-				((double) total) / ((double) NUMBER_OF_GAMES)));
+		return false;
+	}
+
+	private static void registerSubstrategyStatistics() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(SUBSTRATEGY_STATISTICS, new ObjectName(MBEAN_NAME));
+		}
+		catch (JMException exception) {
+			System.err.println("Cannot register the substrategy statistics: " + exception.getMessage());
+		}
 	}
 
-	private static void playGame(GameModel pModel) {
-		pModel.reset();
-		boolean advanced = true;
-		while (advanced) {
-			advanced = pModel.tryToAutoPlay();
+	private static double winRatio(GameStatistics pStatistics) {
+		long games = pStatistics.getNumberOfGames();
+		if (games == 0) {
+			return 0;
 		}
+		return (double) pStatistics.getNumberOfWins() / games;
+	}
+
+	/*
+	 * The median, 90th and 99th percentiles and maximum of a histogram, with
+	 * all values divided by pUnit.
+	 */
+	private static String percentiles(Histogram.Snapshot pSnapshot, long pUnit) {
+		return String.format("p50=%d p90=%d p99=%d max=%d", pSnapshot.getValueAtPercentile(MEDIAN) / pUnit,
+				pSnapshot.getValueAtPercentile(P90) / pUnit, pSnapshot.getValueAtPercentile(P99) / pUnit,
+				pSnapshot.getMax() / pUnit);
 	}
 }
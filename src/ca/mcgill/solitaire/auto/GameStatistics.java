@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ca.mcgill.solitaire.cards.Card;
+
+/**
+ * Aggregates the outcomes of games played concurrently by many threads. All
+ * counters are striped (see LongAdder), so that workers never contend on a
+ * lock or a single memory location, and all values can be read while games are
+ * still being recorded, for example to monitor a long simulation.
+ */
+public final class GameStatistics {
+	private final LongAdder aGames = new LongAdder();
+	private final LongAdder aWins = new LongAdder();
+	private final Histogram aScores = new Histogram();
+	private final Histogram aMoves = new Histogram();
+	private final Histogram aTimes = new Histogram();
+
+	/**
+	 * Records the outcome of one game.
+	 * 
+	 * @param pScore The number of cards in the foundations at the end of the
+	 *     game.
+	 * @param pMoves The number of moves played.
+	 * @param pNanos The time taken to play the game, in nanoseconds.
+	 * @pre pScore >= 0 && pMoves >= 0 && pNanos >= 0
+	 */
+	public void record(int pScore, int pMoves, long pNanos) {
+		aGames.increment();
+		if (pScore == Card.NUMBER_OF_CARDS) {
+			aWins.increment();
+		}
+		aScores.record(pScore);
+		aMoves.record(pMoves);
+		aTimes.record(pNanos);
+	}
+
+	/**
+	 * @return The number of games recorded so far.
+	 */
+	public long getNumberOfGames() {
+		return aGames.sum();
+	}
+
+	/**
+	 * @return The number of games won recorded so far.
+	 */
+	public long getNumberOfWins() {
+		return aWins.sum();
+	}
+
+	/**
+	 * @return The histogram of the final scores.
+	 */
+	public Histogram getScores() {
+		return aScores;
+	}
+
+	/**
+	 * @return The histogram of the number of moves per game.
+	 */
+	public Histogram getMoves() {
+		return aMoves;
+	}
+
+	/**
+	 * @return The histogram of the time taken to play each game, in
+	 *     nanoseconds.
+	 */
+	public Histogram getTimes() {
+		return aTimes;
+	}
+}
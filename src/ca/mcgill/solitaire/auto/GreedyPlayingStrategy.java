@@ -21,14 +21,15 @@
 package ca.mcgill.solitaire.auto;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
 import ca.mcgill.solitaire.cards.Card;
-import ca.mcgill.solitaire.cards.CardStack;
 import ca.mcgill.solitaire.model.FoundationPile;
 import ca.mcgill.solitaire.model.GameModelView;
 import ca.mcgill.solitaire.model.Move;
+import ca.mcgill.solitaire.model.PileView;
 import ca.mcgill.solitaire.model.TableauPile;
 
 /**
@@ -42,23 +43,124 @@ import ca.mcgill.solitaire.model.TableauPile;
  *    pile for a king. 
  * 6. None of the above was possible, discards if possible. 
  * 7. If discarding was not possible, return the null move.
+ * 
+ * Other strategies can be assembled from these substrategies, in any order
+ * and with any of them left out, with a Builder. A pipeline of substrategies
+ * can also be written as a configuration string that lists their names,
+ * separated by commas, for example "MOVE_DISCARD_TO_FOUNDATION,DISCARD".
+ * Since every substrategy either makes progress or discards, any such
+ * strategy ends every game.
+ * 
+ * The strategy can be instrumented with a SubstrategyStatistics, in which case
+ * it records, for each substrategy it tries, whether it found a move and how
+ * long it took. Without statistics, no measurement is taken at all.
  */
 public class GreedyPlayingStrategy implements PlayingStrategy {
-	private static final List<Function<GameModelView, Move>> SUBSTRATEGIES = new ArrayList<>();
+	/**
+	 * The rules tried by the strategy, in order.
+	 */
+	public enum Substrategy {
+		/** Discarding if the discard pile is empty. */
+		DISCARD_IF_DISCARD_PILE_IS_EMPTY(GreedyPlayingStrategy::substrategyDiscardIfDiscardPileIsEmpty),
+		/** Moving a card from the discard pile to a foundation pile. */
+		MOVE_DISCARD_TO_FOUNDATION(GreedyPlayingStrategy::substrategyMoveDiscardToFoundation),
+		/** Moving a card from the discard pile to the tableau. */
+		MOVE_DISCARD_TO_TABLEAU(GreedyPlayingStrategy::substrategyMoveDiscardToTableau),
+		/** Moving a card from the tableau to a foundation pile. */
+		MOVE_FROM_TABLEAU_TO_FOUNDATION(GreedyPlayingStrategy::substrategyMoveFromTableauToFoundation),
+		/** Moving cards within the tableau to reveal a card or empty a pile. */
+		MOVE_WITHIN_TABLEAU(GreedyPlayingStrategy::substrategyMoveWithinTableau),
+		/** Discarding. */
+		DISCARD(GreedyPlayingStrategy::substrategyDiscard);
 
-	static {
-		SUBSTRATEGIES.add(GreedyPlayingStrategy::substrategyDiscardIfDiscardPileIsEmpty);
-		SUBSTRATEGIES.add(GreedyPlayingStrategy::substrategyMoveDiscardToFoundation);
-		SUBSTRATEGIES.add(GreedyPlayingStrategy::substrategyMoveDiscardToTableau);
-		SUBSTRATEGIES.add(GreedyPlayingStrategy::substrategyMoveFromTableauToFoundation);
-		SUBSTRATEGIES.add(GreedyPlayingStrategy::substrategyMoveWithinTableau);
-		SUBSTRATEGIES.add(GreedyPlayingStrategy::substrategyDiscard);
+		private final Function<GameModelView, Move> aFunction;
+
+		Substrategy(Function<GameModelView, Move> pFunction) {
+			aFunction = pFunction;
+		}
+
+		/**
+		 * @param pModel A game model to query.
+		 * @return The move found by this substrategy, or the null move if it
+		 *     does not apply.
+		 */
+		public Move apply(GameModelView pModel) {
+			return aFunction.apply(pModel);
+		}
 	}
 
+	private static final String SEPARATOR = ",";
+
+	private final Substrategy[] aSubstrategies;
+	private final SubstrategyStatistics aStatistics; // Null if not instrumented
+
 	/**
 	 * Creates a new strategy.
 	 */
-	public GreedyPlayingStrategy() {}
+	public GreedyPlayingStrategy() {
+		aSubstrategies = Substrategy.values();
+		aStatistics = null;
+	}
+
+	/**
+	 * Creates a new strategy that records the outcome and duration of every
+	 * substrategy it tries in pStatistics.
+	 * 
+	 * @param pStatistics Where to record the substrategies tried. Can be
+	 *     shared by strategies used in different threads.
+	 * @pre pStatistics != null
+	 */
+	public GreedyPlayingStrategy(SubstrategyStatistics pStatistics) {
+		assert pStatistics != null;
+		aSubstrategies = Substrategy.values();
+		aStatistics = pStatistics;
+	}
+
+	private GreedyPlayingStrategy(Builder pBuilder) {
+		aSubstrategies = pBuilder.aSubstrategies.toArray(new Substrategy[0]);
+		aStatistics = pBuilder.aStatistics;
+	}
+
+	/**
+	 * @return The substrategies tried by this strategy, in order.
+	 */
+	public List<Substrategy> getSubstrategies() {
+		return List.of(aSubstrategies);
+	}
+
+	/**
+	 * @param pSubstrategies A pipeline of substrategies.
+	 * @return The configuration string of pSubstrategies.
+	 * @pre pSubstrategies != null
+	 */
+	public static String toConfiguration(List<Substrategy> pSubstrategies) {
+		assert pSubstrategies != null;
+		List<String> names = new ArrayList<>();
+		for (Substrategy substrategy : pSubstrategies) {
+			names.add(substrategy.name());
+		}
+		return String.join(SEPARATOR, names);
+	}
+
+	/**
+	 * @param pConfiguration A configuration string.
+	 * @return The pipeline of substrategies described by pConfiguration.
+	 * @throws IllegalArgumentException If pConfiguration is empty, names a
+	 *     substrategy that does not exist, or names a substrategy twice.
+	 * @pre pConfiguration != null
+	 */
+	public static List<Substrategy> parseConfiguration(String pConfiguration) {
+		assert pConfiguration != null;
+		List<Substrategy> substrategies = new ArrayList<>();
+		for (String name : pConfiguration.split(SEPARATOR)) {
+			Substrategy substrategy = Substrategy.valueOf(name.strip());
+			if (substrategies.contains(substrategy)) {
+				throw new IllegalArgumentException("Duplicate substrategy: " + substrategy);
+			}
+			substrategies.add(substrategy);
+		}
+		return substrategies;
+	}
 
 	/*
 	 * If the discard pile is empty, discard.
@@ -102,9 +204,9 @@ public class GreedyPlayingStrategy implements PlayingStrategy {
 
 	private static Move substrategyMoveFromTableauToFoundation(GameModelView pModel) {
 		for (TableauPile tableauPile : TableauPile.values()) {
-			CardStack stack = pModel.getTableauPile(tableauPile);
-			if (!stack.isEmpty()) {
-				Card card = stack.peekTop();
+			PileView pile = pModel.getTableauPileView(tableauPile);
+			if (!pile.isEmpty()) {
+				Card card = pile.peekTop();
 				for (FoundationPile foundationPile : FoundationPile.values()) {
 					if (pModel.isLegalMove(card, foundationPile)) {
 						return pModel.getCardMove(card, foundationPile);
@@ -116,22 +218,24 @@ public class GreedyPlayingStrategy implements PlayingStrategy {
 	}
 
 	/*
-	 * Only if it reveals a card or empties a pile. We also don't move kings
-	 * between empty piles
+	 * Only if it reveals a card or empties a pile, so only the lowest visible
+	 * card of a pile is considered. We also don't move kings between empty
+	 * piles
 	 */
 	private static Move substrategyMoveWithinTableau(GameModelView pModel) {
 		for (TableauPile pile : TableauPile.values()) {
-			CardStack stack = pModel.getTableauPile(pile);
-			for (Card card : stack) {
-				if (pModel.isBottomKing(card)) {
-					continue;
-				}
-				if (pModel.isLowestVisibleInTableau(card)) {
-					for (TableauPile pile2 : TableauPile.values()) {
-						if (pModel.isLegalMove(card, pile2)) {
-							return pModel.getCardMove(card, pile2);
-						}
-					}
+			PileView view = pModel.getTableauPileView(pile);
+			int lowestVisible = view.getFirstVisibleIndex();
+			if (lowestVisible == view.size()) {
+				continue;
+			}
+			Card card = view.get(lowestVisible);
+			if (pModel.isBottomKing(card)) {
+				continue;
+			}
+			for (TableauPile pile2 : TableauPile.values()) {
+				if (pModel.isLegalMove(card, pile2)) {
+					return pModel.getCardMove(card, pile2);
 				}
 			}
 		}
@@ -149,12 +253,114 @@ public class GreedyPlayingStrategy implements PlayingStrategy {
 
 	@Override
 	public Move getLegalMove(GameModelView pModel) {
-		for (Function<GameModelView, Move> substrategy : SUBSTRATEGIES) {
+		if (aStatistics != null) {
+			return getLegalMoveInstrumented(pModel);
+		}
+		for (Substrategy substrategy : aSubstrategies) {
+			Move move = substrategy.apply(pModel);
+			if (!move.isNull()) {
+				return move;
+			}
+		}
+		return pModel.getNullMove();
+	}
+
+	private Move getLegalMoveInstrumented(GameModelView pModel) {
+		for (Substrategy substrategy : aSubstrategies) {
+			long start = System.nanoTime();
 			Move move = substrategy.apply(pModel);
+			aStatistics.record(substrategy, !move.isNull(), System.nanoTime() - start);
 			if (!move.isNull()) {
 				return move;
 			}
 		}
 		return pModel.getNullMove();
 	}
+
+	/**
+	 * Assembles a GreedyPlayingStrategy from substrategies. The strategy tries
+	 * the substrategies in the order in which they are added.
+	 */
+	public static final class Builder {
+		private final List<Substrategy> aSubstrategies = new ArrayList<>();
+		private SubstrategyStatistics aStatistics;
+
+		/**
+		 * Creates a builder with no substrategies.
+		 */
+		public Builder() {}
+
+		/**
+		 * Adds pSubstrategy at the end of the pipeline.
+		 * 
+		 * @param pSubstrategy The substrategy to add.
+		 * @return This builder.
+		 * @pre pSubstrategy != null && pSubstrategy is not in the pipeline.
+		 */
+		public Builder add(Substrategy pSubstrategy) {
+			assert pSubstrategy != null && !aSubstrategies.contains(pSubstrategy);
+			aSubstrategies.add(pSubstrategy);
+			return this;
+		}
+
+		/**
+		 * Adds all the substrategies of pSubstrategies, in order, at the end of
+		 * the pipeline.
+		 * 
+		 * @param pSubstrategies The substrategies to add.
+		 * @return This builder.
+		 * @pre pSubstrategies != null && none of pSubstrategies is in the
+		 *     pipeline.
+		 */
+		public Builder addAll(List<Substrategy> pSubstrategies) {
+			assert pSubstrategies != null && Collections.disjoint(aSubstrategies, pSubstrategies);
+			for (Substrategy substrategy : pSubstrategies) {
+				add(substrategy);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the substrategies named in pConfiguration, in order, at the end
+		 * of the pipeline.
+		 * 
+		 * @param pConfiguration A configuration string.
+		 * @return This builder.
+		 * @throws IllegalArgumentException If pConfiguration is not a valid
+		 *     configuration string, or names a substrategy that is already in
+		 *     the pipeline.
+		 * @pre pConfiguration != null
+		 */
+		public Builder configure(String pConfiguration) {
+			assert pConfiguration != null;
+			List<Substrategy> substrategies = parseConfiguration(pConfiguration);
+			if (!Collections.disjoint(aSubstrategies, substrategies)) {
+				throw new IllegalArgumentException("Duplicate substrategy in " + pConfiguration);
+			}
+			return addAll(substrategies);
+		}
+
+		/**
+		 * Makes the strategy record the substrategies it tries in pStatistics.
+		 * 
+		 * @param pStatistics Where to record the substrategies tried.
+		 * @return This builder.
+		 * @pre pStatistics != null
+		 */
+		public Builder instrument(SubstrategyStatistics pStatistics) {
+			assert pStatistics != null;
+			aStatistics = pStatistics;
+			return this;
+		}
+
+		/**
+		 * @return A new strategy that tries the substrategies of this builder.
+		 *     The builder can be reused.
+		 * @pre at least one substrategy was added.
+		 */
+		public GreedyPlayingStrategy build() {
+			assert !aSubstrategies.isEmpty();
+			return new GreedyPlayingStrategy(this);
+		}
+	}
 }
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative long values that can be updated by many threads
+ * at once without locking, and read while it is being updated.
+ * 
+ * Values are counted in buckets whose width grows with the magnitude of the
+ * values, in the manner of an HDR histogram: values below 32 each have their
+ * own bucket, and every power of two above that is split in 32 buckets of
+ * equal width. Any value is thus known with a relative error of at most about
+ * 3%, with a fixed number of buckets covering the whole range of long values.
+ * Each bucket is a LongAdder, so that threads that record values in the same
+ * bucket do not contend for it.
+ */
+public final class Histogram {
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int LONG_BITS = 64;
+	private static final int NUMBER_OF_BUCKETS = (LONG_BITS - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	private static final double PERCENT = 100.0;
+
+	private final LongAdder[] aBuckets = new LongAdder[NUMBER_OF_BUCKETS];
+	private final LongAdder aSum = new LongAdder();
+	private final LongAccumulator aMax = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Creates an empty histogram.
+	 */
+	public Histogram() {
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+			aBuckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records one occurrence of pValue.
+	 * 
+	 * @param pValue The value to record.
+	 * @pre pValue >= 0
+	 */
+	public void record(long pValue) {
+		assert pValue >= 0;
+		aBuckets[bucketOf(pValue)].increment();
+		aSum.add(pValue);
+		aMax.accumulate(pValue);
+	}
+
+	/**
+	 * Returns a copy of the current state of the histogram. If values are being
+	 * recorded concurrently, the snapshot may include only some of them.
+	 * 
+	 * @return A snapshot of the histogram.
+	 */
+	public Snapshot snapshot() {
+		long[] counts = new long[NUMBER_OF_BUCKETS];
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+			counts[i] = aBuckets[i].sum();
+		}
+		return new Snapshot(counts, aSum.sum(), aMax.get());
+	}
+
+	/*
+	 * Values below SUB_BUCKETS are their own bucket. Otherwise, the bucket is
+	 * determined by the position of the highest bit of the value and the
+	 * SUB_BUCKET_BITS bits that follow it.
+	 */
+	static int bucketOf(long pValue) {
+		if (pValue < SUB_BUCKETS) {
+			return (int) pValue;
+		}
+		int exponent = LONG_BITS - 1 - Long.numberOfLeadingZeros(pValue);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (pValue >>> shift) - SUB_BUCKETS;
+	}
+
+	/*
+	 * The smallest value counted in pBucket.
+	 */
+	static long lowestValueOf(int pBucket) {
+		if (pBucket < SUB_BUCKETS) {
+			return pBucket;
+		}
+		int shift = pBucket / SUB_BUCKETS - 1;
+		return (long) (pBucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+	}
+
+	/**
+	 * An immutable copy of the state of a histogram at some point in time.
+	 */
+	public static final class Snapshot {
+		private final long[] aCounts;
+		private final long aTotalCount;
+		private final long aSum;
+		private final long aMax;
+
+		Snapshot(long[] pCounts, long pSum, long pMax) {
+			aCounts = pCounts;
+			long total = 0;
+			for (long count : pCounts) {
+				total += count;
+			}
+			aTotalCount = total;
+			aSum = pSum;
+			aMax = pMax;
+		}
+
+		/**
+		 * @return The number of values recorded.
+		 */
+		public long getCount() {
+			return aTotalCount;
+		}
+
+		/**
+		 * @return The mean of the values recorded, or 0 if there are none.
+		 */
+		public double getMean() {
+			if (aTotalCount == 0) {
+				return 0;
+			}
+			return (double) aSum / aTotalCount;
+		}
+
+		/**
+		 * @return The largest value recorded, or 0 if there are none.
+		 */
+		public long getMax() {
+			return aMax;
+		}
+
+		/**
+		 * Returns the value below which pPercentile percent of the recorded
+		 * values fall, with the precision of the buckets of the histogram.
+		 * 
+		 * @param pPercentile A percentile, between 0 and 100.
+		 * @return The lowest value of the bucket that contains the requested
+		 *     percentile, or 0 if there are no values.
+		 * @pre pPercentile >= 0 && pPercentile <= 100
+		 */
+		public long getValueAtPercentile(double pPercentile) {
+			assert pPercentile >= 0 && pPercentile <= PERCENT;
+			long rank = (long) Math.ceil(pPercentile / PERCENT * aTotalCount);
+			long seen = 0;
+			for (int bucket = 0; bucket < aCounts.length; bucket++) {
+				seen += aCounts[bucket];
+				if (seen >= rank && seen > 0) {
+					return lowestValueOf(bucket);
+				}
+			}
+			return 0;
+		}
+	}
+}
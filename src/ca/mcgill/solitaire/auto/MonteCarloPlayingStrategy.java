@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import ca.mcgill.solitaire.model.CompactGameState;
+import ca.mcgill.solitaire.model.GameModelView;
+import ca.mcgill.solitaire.model.Move;
+
+/**
+ * Plays without knowing the cards that are face down or in the deck, by
+ * evaluating its moves on samples of what these cards could be. At each
+ * decision, the strategy draws a number of determinizations of the game, that
+ * is, states where the hidden cards of a snapshot are shuffled among their
+ * positions (see CompactGameState.shuffleHiddenCards). Each candidate move is
+ * played in every determinization, followed by a rollout of the game to its
+ * end with the greedy strategy, and the move that leads to the highest total
+ * score is chosen. All candidates are evaluated on the same determinizations,
+ * so that they are compared on equal terms. In case of a tie, the strategy
+ * plays the move that the greedy strategy would play.
+ * 
+ * The determinizations are evaluated in parallel on a fork/join pool. The
+ * latency of a decision is bounded by a time budget: once it is spent, the
+ * determinizations that have not started yet are skipped, and the decision is
+ * made with the ones that were completed.
+ * 
+ * The candidate moves are the legal moves that the Solver does not consider
+ * redundant. A move to a foundation that is safe is played without any
+ * rollout. To avoid cycles, the strategy never plays a move that returns to a
+ * position it has already reached in the current game, which it tracks by
+ * position hash. If the game leaves the positions it expects (for example,
+ * because a move was undone or a new game was dealt), it forgets the
+ * positions of the previous game.
+ * 
+ * A MonteCarloPlayingStrategy is not thread-safe, but several strategies can
+ * share the same pool.
+ */
+public class MonteCarloPlayingStrategy implements PlayingStrategy {
+	private static final int DEFAULT_DETERMINIZATIONS = 16;
+	private static final long DEFAULT_TIME_BUDGET_NANOS = 100_000_000L;
+	private static final GreedyPlayingStrategy ROLLOUT_STRATEGY = new GreedyPlayingStrategy();
+
+	private final ForkJoinPool aPool;
+	private final int aDeterminizations;
+	private final long aTimeBudgetNanos;
+	private final SplittableRandom aRandom;
+	private final int[] aMoves = new int[CompactGameState.MAX_MOVES];
+	private final Set<Long> aVisited = new HashSet<>();
+	private long aExpectedHash;
+
+	/**
+	 * Creates a strategy that samples 16 determinizations per decision on the
+	 * common fork/join pool, within 100 milliseconds.
+	 */
+	public MonteCarloPlayingStrategy() {
+		this(ForkJoinPool.commonPool(), DEFAULT_DETERMINIZATIONS, DEFAULT_TIME_BUDGET_NANOS, new SplittableRandom());
+	}
+
+	/**
+	 * Creates a strategy. With the same seed and a time budget that is never
+	 * exhausted, the strategy makes the same decisions regardless of the
+	 * number of threads of pPool.
+	 * 
+	 * @param pPool The pool that evaluates the determinizations.
+	 * @param pDeterminizations The number of determinizations sampled per
+	 *     decision.
+	 * @param pTimeBudgetNanos The maximum time spent evaluating moves for one
+	 *     decision, in nanoseconds. At least one determinization is always
+	 *     evaluated.
+	 * @param pRandom The source of randomness for the determinizations.
+	 * @pre pPool != null && pDeterminizations > 0 && pTimeBudgetNanos > 0 &&
+	 *     pRandom != null
+	 */
+	public MonteCarloPlayingStrategy(ForkJoinPool pPool, int pDeterminizations, long pTimeBudgetNanos,
+			SplittableRandom pRandom) {
+		assert pPool != null && pDeterminizations > 0 && pTimeBudgetNanos > 0 && pRandom != null;
+		aPool = pPool;
+		aDeterminizations = pDeterminizations;
+		aTimeBudgetNanos = pTimeBudgetNanos;
+		aRandom = pRandom;
+	}
+
+	@Override
+	public Move getLegalMove(GameModelView pModel) {
+		if (pModel.getHash() != aExpectedHash) {
+			aVisited.clear();
+		}
+		aVisited.add(pModel.getHash());
+		CompactGameState state = pModel.snapshot();
+		int count = 0;
+		if (!state.isCompleted()) {
+			count = candidates(state);
+		}
+		if (count == 0) {
+			return pModel.getNullMove();
+		}
+		int move = aMoves[0];
+		int safeMove = Solver.findSafeMove(state, aMoves, count);
+		if (safeMove >= 0) {
+			move = safeMove;
+		}
+		else if (count > 1) {
+			move = aMoves[best(evaluate(state, count), greedyChoice(state, count))];
+		}
+		state.perform(move);
+		aExpectedHash = state.getHash();
+		aVisited.add(aExpectedHash);
+		return pModel.decodeMove(move);
+	}
+
+	/*
+	 * Stores the candidate moves of pState at the start of aMoves and returns
+	 * their number.
+	 */
+	private int candidates(CompactGameState pState) {
+		int total = pState.generateMoves(aMoves);
+		int count = 0;
+		for (int i = 0; i < total; i++) {
+			int move = aMoves[i];
+			if (!Solver.isRedundant(pState, move) && !revisits(pState, move)) {
+				aMoves[count++] = move;
+			}
+		}
+		return count;
+	}
+
+	private boolean revisits(CompactGameState pState, int pMove) {
+		pState.perform(pMove);
+		boolean visited = aVisited.contains(pState.getHash());
+		pState.undoLast();
+		return visited;
+	}
+
+	/*
+	 * The total score of each of the first pCount moves of aMoves over the
+	 * determinizations evaluated within the time budget.
+	 */
+	private long[] evaluate(CompactGameState pState, int pCount) {
+		int[] candidates = new int[pCount];
+		System.arraycopy(aMoves, 0, candidates, 0, pCount);
+		long deadline = System.nanoTime() + aTimeBudgetNanos;
+		return aPool.invoke(new Rollouts(pState, candidates, 0, aDeterminizations, deadline, aRandom.split()));
+	}
+
+	/*
+	 * The index of the first of the pCount candidate moves of aMoves that
+	 * leads to the same position as the move of the rollout strategy, or 0 if
+	 * there is none.
+	 */
+	private int greedyChoice(CompactGameState pState, int pCount) {
+		Move greedy = ROLLOUT_STRATEGY.getLegalMove(pState);
+		if (greedy.isNull()) {
+			return 0;
+		}
+		greedy.perform();
+		long target = pState.getHash();
+		greedy.undo();
+		for (int i = 0; i < pCount; i++) {
+			pState.perform(aMoves[i]);
+			long hash = pState.getHash();
+			pState.undoLast();
+			if (hash == target) {
+				return i;
+			}
+		}
+		return 0;
+	}
+
+	/*
+	 * The index of the highest total, or pDefault if no total is higher than
+	 * the total at pDefault.
+	 */
+	private static int best(long[] pTotals, int pDefault) {
+		int best = pDefault;
+		for (int i = 0; i < pTotals.length; i++) {
+			if (pTotals[i] > pTotals[best]) {
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	/*
+	 * Plays pState to its end with the rollout strategy.
+	 */
+	private static void rollout(CompactGameState pState) {
+		Move move = ROLLOUT_STRATEGY.getLegalMove(pState);
+		while (!move.isNull()) {
+			move.perform();
+			move = ROLLOUT_STRATEGY.getLegalMove(pState);
+		}
+	}
+
+	/*
+	 * Evaluates the candidate moves on the determinizations numbered from
+	 * aFirst to aLast (exclusive), by splitting the range in halves. The
+	 * random generator is split in the same way whatever the number of
+	 * threads, so that each determinization always gets the same cards.
+	 */
+	private static final class Rollouts extends RecursiveTask<long[]> {
+		private static final long serialVersionUID = 1L;
+
+		private final transient CompactGameState aState;
+		private final int[] aCandidates;
+		private final int aFirst;
+		private final int aLast;
+		private final long aDeadline;
+		private final transient SplittableRandom aRandom;
+
+		Rollouts(CompactGameState pState, int[] pCandidates, int pFirst, int pLast, long pDeadline,
+				SplittableRandom pRandom) {
+			aState = pState;
+			aCandidates = pCandidates;
+			aFirst = pFirst;
+			aLast = pLast;
+			aDeadline = pDeadline;
+			aRandom = pRandom;
+		}
+
+		@Override
+		protected long[] compute() {
+			if (aLast - aFirst == 1) {
+				return evaluateOne();
+			}
+			int middle = (aFirst + aLast) >>> 1;
+			Rollouts second = new Rollouts(aState, aCandidates, middle, aLast, aDeadline, aRandom.split());
+			second.fork();
+			long[] totals = new Rollouts(aState, aCandidates, aFirst, middle, aDeadline, aRandom).compute();
+			long[] others = second.join();
+			for (int i = 0; i < totals.length; i++) {
+				totals[i] += others[i];
+			}
+			return totals;
+		}
+
+		private long[] evaluateOne() {
+			long[] totals = new long[aCandidates.length];
+			if (aFirst > 0 && System.nanoTime() > aDeadline) {
+				return totals;
+			}
+			CompactGameState determinization = new CompactGameState(aState);
+			determinization.shuffleHiddenCards(aRandom);
+			int mark = determinization.getNumberOfMoves();
+			for (int i = 0; i < aCandidates.length; i++) {
+				perform(determinization, aCandidates[i]);
+				rollout(determinization);
+				totals[i] = determinization.getScore();
+				while (determinization.getNumberOfMoves() > mark) {
+					determinization.undoLast();
+				}
+			}
+			return totals;
+		}
+
+		/*
+		 * Drawing is encoded with the card on top of the deck, which is not
+		 * the same in the determinization.
+		 */
+		private static void perform(CompactGameState pState, int pMove) {
+			if (CompactGameState.moveDestination(pMove) == CompactGameState.DISCARD) {
+				pState.draw();
+			}
+			else {
+				pState.perform(pMove);
+			}
+		}
+	}
+}
@@ -0,0 +1,327 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.cards.Rank;
+import ca.mcgill.solitaire.cards.Suit;
+import ca.mcgill.solitaire.model.CardRules;
+import ca.mcgill.solitaire.model.CompactGameState;
+import ca.mcgill.solitaire.model.TableauPile;
+
+/**
+ * Searches for a sequence of moves that completes a game, by depth-first
+ * search over the legal moves of a CompactGameState. Positions that were
+ * already explored are recorded by their Zobrist hash in a transposition table
+ * of bounded size, so that they are not explored again. The search visits at
+ * most a fixed number of positions.
+ * 
+ * With perfect information, the solver knows the order of the cards in the
+ * deck and the face-down cards of the tableau, so it can establish whether a
+ * deal can be won. Otherwise, any move that reveals a card (drawing from the
+ * deck or turning a card face up in the tableau) ends the line of play being
+ * explored, since its outcome cannot be known to the player.
+ * 
+ * To keep the search tractable, the solver does not consider moves that can
+ * be shown to be useless or symmetrical to another move, nor moves that split
+ * a sequence of face-up cards in the tableau, unless this frees a card that
+ * can go to a foundation. A deal reported as unsolvable can therefore, in
+ * rare cases, be won by splitting such a sequence.
+ * 
+ * When no winning line is found, the solver reports the line that leads to the
+ * best position it visited, where positions are ranked by the number of cards
+ * in the foundations, then by the number of cards that are known to the
+ * player.
+ * 
+ * A Solver is not thread-safe.
+ */
+public final class Solver {
+	/**
+	 * The outcome of a search.
+	 */
+	public enum Status {
+		/** A winning line was found. */
+		SOLVED,
+		/** The search was exhaustive, for the moves considered, and found no winning line. */
+		UNSOLVABLE,
+		/** The search was not exhaustive and found no winning line. */
+		UNKNOWN
+	}
+
+	private static final int NUMBER_OF_RANKS = Rank.values().length;
+	private static final int NUMBER_OF_SUITS = Suit.values().length;
+	private static final int FIRST_PILE = CompactGameState.indexOf(TableauPile.FIRST);
+	private static final int INITIAL_DEPTH = 256;
+
+	private final TranspositionTable aTable;
+	private final long aNodeLimit;
+	private final boolean aPerfectInformation;
+	private final List<int[]> aBuffers = new ArrayList<>(); // Move buffers, by depth
+	private CompactGameState aState;
+	private int[] aPath = new int[INITIAL_DEPTH];
+	private int[] aBestLine = new int[0];
+	private int aBestEvaluation;
+	private long aNodes;
+	private boolean aAborted;
+
+	/**
+	 * Creates a solver.
+	 * 
+	 * @param pTableCapacity The maximum number of positions recorded in the
+	 *     transposition table. The table takes 16 bytes per position.
+	 * @param pNodeLimit The maximum number of positions visited by a search.
+	 * @param pPerfectInformation True if the solver can use the cards that are
+	 *     not visible to the player.
+	 * @pre pTableCapacity > 0 && pNodeLimit > 0
+	 */
+	public Solver(int pTableCapacity, long pNodeLimit, boolean pPerfectInformation) {
+		assert pTableCapacity > 0 && pNodeLimit > 0;
+		aTable = new TranspositionTable(pTableCapacity);
+		aNodeLimit = pNodeLimit;
+		aPerfectInformation = pPerfectInformation;
+	}
+
+	/**
+	 * Searches for a winning line from pState. Without perfect information, the
+	 * status is never UNSOLVABLE, since winning may depend on cards that are
+	 * not known yet.
+	 * 
+	 * @param pState The state to search from. It is not modified.
+	 * @return The outcome of the search.
+	 * @pre pState != null
+	 */
+	public Status solve(CompactGameState pState) {
+		assert pState != null;
+		aState = new CompactGameState(pState);
+		aTable.clear();
+		aNodes = 0;
+		aAborted = false;
+		aBestLine = new int[0];
+		aBestEvaluation = evaluate();
+		boolean solved = search(0, true);
+		aState = null;
+		if (solved) {
+			return Status.SOLVED;
+		}
+		else if (aAborted || !aPerfectInformation) {
+			return Status.UNKNOWN;
+		}
+		return Status.UNSOLVABLE;
+	}
+
+	/**
+	 * @return The moves of the winning line found by the last search, encoded
+	 *     as in CompactGameState, or if the game was not solved, the moves that
+	 *     lead to the best position visited. Empty if no position was better
+	 *     than the initial one.
+	 */
+	public int[] getSolution() {
+		return aBestLine.clone();
+	}
+
+	/**
+	 * @return The number of positions visited by the last search.
+	 */
+	public long getNodesVisited() {
+		return aNodes;
+	}
+
+	/*
+	 * Explores the current state, at depth pDepth. If pExpand is false, the
+	 * state is only evaluated. Returns true if a winning line was found, in
+	 * which case it is in aBestLine.
+	 */
+	private boolean search(int pDepth, boolean pExpand) {
+		if (aState.isCompleted()) {
+			aBestLine = Arrays.copyOf(aPath, pDepth);
+			return true;
+		}
+		int evaluation = evaluate();
+		if (evaluation > aBestEvaluation) {
+			aBestEvaluation = evaluation;
+			aBestLine = Arrays.copyOf(aPath, pDepth);
+		}
+		if (!pExpand || aTable.contains(aState.getHash())) {
+			return false;
+		}
+		if (++aNodes > aNodeLimit) {
+			aAborted = true;
+			return false;
+		}
+		aTable.add(aState.getHash());
+		int[] moves = buffer(pDepth);
+		int count = aState.generateMoves(moves);
+		int safeMove = findSafeMove(aState, moves, count);
+		if (safeMove >= 0) {
+			moves[0] = safeMove;
+			count = 1;
+		}
+		for (int i = 0; i < count && !aAborted; i++) {
+			int move = moves[i];
+			if (isRedundant(aState, move)) {
+				continue;
+			}
+			boolean expand = aPerfectInformation || !reveals(move);
+			if (pDepth == aPath.length) {
+				aPath = Arrays.copyOf(aPath, aPath.length * 2);
+			}
+			aPath[pDepth] = move;
+			aState.perform(move);
+			boolean solved = search(pDepth + 1, expand);
+			aState.undoLast();
+			if (solved) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int[] buffer(int pDepth) {
+		if (pDepth == aBuffers.size()) {
+			aBuffers.add(new int[CompactGameState.MAX_MOVES]);
+		}
+		return aBuffers.get(pDepth);
+	}
+
+	/*
+	 * Twice the number of cards in the foundations, plus the number of cards
+	 * that are neither in the deck nor face down in the tableau.
+	 */
+	private int evaluate() {
+		int score = aState.getScore();
+		int inTableau = Card.NUMBER_OF_CARDS - score - aState.getDeckSize() - aState.getDiscardSize();
+		int faceDown = inTableau - Long.bitCount(aState.getVisibleCards());
+		return 2 * score + Card.NUMBER_OF_CARDS - aState.getDeckSize() - faceDown;
+	}
+
+	/*
+	 * A move to a foundation is safe if no other card could ever need to be
+	 * placed on the moved card: it is an Ace or a Two, or both cards of the
+	 * opposite color and lower rank are already in the foundations. Playing a
+	 * safe move first never prevents a win, so its siblings need not be
+	 * explored. Returns -1 if there is no safe move.
+	 */
+	static int findSafeMove(CompactGameState pState, int[] pMoves, int pCount) {
+		for (int i = 0; i < pCount; i++) {
+			int card = CompactGameState.moveCard(pMoves[i]);
+			if (CompactGameState.isFoundation(CompactGameState.moveDestination(pMoves[i])) &&
+					!CompactGameState.isFoundation(pState.getLocation(card)) && isSafe(pState, card)) {
+				return pMoves[i];
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isSafe(CompactGameState pState, int pCard) {
+		int rank = pCard % NUMBER_OF_RANKS;
+		if (rank <= 1) {
+			return true;
+		}
+		long lower = CardRules.getStackableOn(pCard);
+		while (lower != 0) {
+			if (!CompactGameState.isFoundation(pState.getLocation(Long.numberOfTrailingZeros(lower)))) {
+				return false;
+			}
+			lower &= lower - 1;
+		}
+		return true;
+	}
+
+	/*
+	 * Moves that lead to a position symmetrical to that of another move, or
+	 * that are very unlikely to make progress: moving a card between
+	 * foundations, moving an Ace to an empty foundation other than the first,
+	 * moving a King to an empty pile other than the first, moving a King that
+	 * is already at the bottom of a pile to an empty pile, and moving part of a
+	 * sequence of face-up cards to another pile, unless this frees a card that
+	 * can go to a foundation.
+	 */
+	static boolean isRedundant(CompactGameState pState, int pMove) {
+		int card = CompactGameState.moveCard(pMove);
+		int destination = CompactGameState.moveDestination(pMove);
+		int source = pState.getLocation(card);
+		if (CompactGameState.isFoundation(destination)) {
+			return CompactGameState.isFoundation(source) || pState.getFoundationTop(destination) < 0 &&
+					destination != firstEmptyFoundation(pState);
+		}
+		if (!CompactGameState.isTableau(destination) || !CompactGameState.isTableau(source)) {
+			return false;
+		}
+		if (pState.getPileSize(destination - FIRST_PILE) == 0) {
+			return pState.getPosition(card) == 0 || destination - FIRST_PILE != firstEmptyPile(pState);
+		}
+		return splitsSequence(pState, card, source);
+	}
+
+	private static boolean splitsSequence(CompactGameState pState, int pCard, int pSource) {
+		int position = pState.getPosition(pCard);
+		if (position == 0) {
+			return false;
+		}
+		int below = pState.getPileCard(pSource - FIRST_PILE, position - 1);
+		if (!pState.isVisible(below)) {
+			return false;
+		}
+		for (int foundation = 0; foundation < NUMBER_OF_SUITS; foundation++) {
+			if (pState.fits(below, foundation)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int firstEmptyFoundation(CompactGameState pState) {
+		int foundation = 0;
+		while (pState.getFoundationTop(foundation) >= 0) {
+			foundation++;
+		}
+		return foundation;
+	}
+
+	private static int firstEmptyPile(CompactGameState pState) {
+		int pile = 0;
+		while (pState.getPileSize(pile) != 0) {
+			pile++;
+		}
+		return pile;
+	}
+
+	/*
+	 * True if pMove turns a card face up, or draws a card from the deck.
+	 */
+	private boolean reveals(int pMove) {
+		int destination = CompactGameState.moveDestination(pMove);
+		if (destination == CompactGameState.DISCARD) {
+			return true;
+		}
+		int card = CompactGameState.moveCard(pMove);
+		int source = aState.getLocation(card);
+		if (!CompactGameState.isTableau(source) || aState.getPosition(card) == 0) {
+			return false;
+		}
+		int pile = source - FIRST_PILE;
+		return !aState.isVisible(aState.getPileCard(pile, aState.getPosition(card) - 1));
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import ca.mcgill.solitaire.model.CompactGameState;
+import ca.mcgill.solitaire.model.GameModelView;
+import ca.mcgill.solitaire.model.Move;
+
+/**
+ * Plays the moves found by a Solver. When asked for a move, the strategy
+ * searches from a snapshot of the game and remembers the line of play found,
+ * then follows that line for as long as the game stays on it, which it checks
+ * by comparing position hashes. If the game leaves the line (for example,
+ * because a move was undone), or the line is exhausted, the strategy searches
+ * again.
+ * 
+ * When the solver cannot find a winning line, the strategy follows the line to
+ * the best position found, which is always strictly better than the current
+ * one, so the strategy cannot cycle. If there is no such line, it returns the
+ * null move.
+ */
+public class SolvingPlayingStrategy implements PlayingStrategy {
+	private static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
+	private static final long DEFAULT_NODE_LIMIT = 200_000;
+
+	private final Solver aSolver;
+	private int[] aLine = new int[0];
+	private long[] aLineHashes = new long[0]; // Hash of the state before each move of the line
+	private int aNext;
+
+	/**
+	 * Creates a strategy that plays with perfect information, with a
+	 * transposition table of about one million positions and a limit of
+	 * 200000 positions per search.
+	 */
+	public SolvingPlayingStrategy() {
+		this(new Solver(DEFAULT_TABLE_CAPACITY, DEFAULT_NODE_LIMIT, true));
+	}
+
+	/**
+	 * Creates a strategy that plays the moves found by pSolver.
+	 * 
+	 * @param pSolver The solver to use.
+	 * @pre pSolver != null
+	 */
+	public SolvingPlayingStrategy(Solver pSolver) {
+		assert pSolver != null;
+		aSolver = pSolver;
+	}
+
+	@Override
+	public Move getLegalMove(GameModelView pModel) {
+		if (aNext >= aLine.length || aLineHashes[aNext] != pModel.getHash()) {
+			plan(pModel.snapshot());
+		}
+		if (aNext >= aLine.length) {
+			return pModel.getNullMove();
+		}
+		return pModel.decodeMove(aLine[aNext++]);
+	}
+
+	private void plan(CompactGameState pState) {
+		aSolver.solve(pState);
+		aLine = aSolver.getSolution();
+		aLineHashes = new long[aLine.length];
+		for (int i = 0; i < aLine.length; i++) {
+			aLineHashes[i] = pState.getHash();
+			pState.perform(aLine[i]);
+		}
+		aNext = 0;
+	}
+}
@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy.Substrategy;
+import ca.mcgill.solitaire.model.GameModel;
+
+/**
+ * Searches for the pipeline of substrategies of GreedyPlayingStrategy that wins
+ * the most games per second of CPU time, on a fixed corpus of seeded deals.
+ * 
+ * The search is a hill climb: starting from a given pipeline, the tuner
+ * evaluates all its neighbors, which are the pipelines obtained by moving one
+ * substrategy to another position, by removing one substrategy, or by
+ * inserting one of the substrategies left out at any position. If the best
+ * neighbor is better than the current pipeline, it becomes the current
+ * pipeline, and the search continues from it. Each pipeline is evaluated at
+ * most once, so the search always ends.
+ * 
+ * The neighbors are evaluated in parallel, one per worker thread. Each
+ * evaluation plays the whole corpus on a single thread and measures the CPU
+ * time of that thread, so that evaluations running at the same time do not
+ * distort each other's measurements.
+ */
+public final class StrategyTuner {
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+	private final int aNumberOfGames;
+	private final long aSeed;
+	private final int aNumberOfWorkers;
+	private final Map<List<Substrategy>, Evaluation> aEvaluations = new HashMap<>();
+
+	/**
+	 * Creates a tuner that evaluates the pipelines on the deals of seeds pSeed
+	 * to pSeed + pNumberOfGames - 1.
+	 * 
+	 * @param pNumberOfGames The number of deals of the corpus.
+	 * @param pSeed The seed of the first deal.
+	 * @param pNumberOfWorkers The number of pipelines evaluated at the same
+	 *     time.
+	 * @pre pNumberOfGames > 0 && pNumberOfWorkers > 0
+	 */
+	public StrategyTuner(int pNumberOfGames, long pSeed, int pNumberOfWorkers) {
+		assert pNumberOfGames > 0 && pNumberOfWorkers > 0;
+		aNumberOfGames = pNumberOfGames;
+		aSeed = pSeed;
+		aNumberOfWorkers = pNumberOfWorkers;
+	}
+
+	/**
+	 * Searches for the best pipeline, starting from pInitial.
+	 * 
+	 * @param pInitial The pipeline to start from.
+	 * @return The evaluation of the best pipeline found.
+	 * @throws InterruptedException If the search is interrupted.
+	 * @pre pInitial != null && !pInitial.isEmpty()
+	 */
+	public Evaluation tune(List<Substrategy> pInitial) throws InterruptedException {
+		assert pInitial != null && !pInitial.isEmpty();
+		Evaluation best = evaluateAll(List.of(List.copyOf(pInitial))).get(0);
+		boolean improved = true;
+		while (improved) {
+			improved = false;
+			for (Evaluation evaluation : evaluateAll(neighbors(best.getSubstrategies()))) {
+				if (evaluation.getWinsPerCpuSecond() > best.getWinsPerCpuSecond()) {
+					best = evaluation;
+					improved = true;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return The evaluations of all the pipelines evaluated so far.
+	 */
+	public List<Evaluation> getEvaluations() {
+		return new ArrayList<>(aEvaluations.values());
+	}
+
+	/*
+	 * The pipelines that differ from pPipeline by moving, removing or adding
+	 * one substrategy.
+	 */
+	static List<List<Substrategy>> neighbors(List<Substrategy> pPipeline) {
+		Set<List<Substrategy>> neighbors = new LinkedHashSet<>();
+		for (int from = 0; from < pPipeline.size(); from++) {
+			List<Substrategy> removed = new ArrayList<>(pPipeline);
+			Substrategy substrategy = removed.remove(from);
+			if (!removed.isEmpty()) {
+				neighbors.add(removed);
+			}
+			for (int to = 0; to <= removed.size(); to++) {
+				List<Substrategy> moved = new ArrayList<>(removed);
+				moved.add(to, substrategy);
+				neighbors.add(moved);
+			}
+		}
+		for (Substrategy substrategy : Substrategy.values()) {
+			if (!pPipeline.contains(substrategy)) {
+				for (int to = 0; to <= pPipeline.size(); to++) {
+					List<Substrategy> added = new ArrayList<>(pPipeline);
+					added.add(to, substrategy);
+					neighbors.add(added);
+				}
+			}
+		}
+		neighbors.remove(pPipeline);
+		return new ArrayList<>(neighbors);
+	}
+
+	/*
+	 * Returns the evaluations of pPipelines, in order. The pipelines that were
+	 * not evaluated yet are evaluated in parallel.
+	 */
+	private List<Evaluation> evaluateAll(List<List<Substrategy>> pPipelines) throws InterruptedException {
+		List<Future<Evaluation>> pending = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(aNumberOfWorkers);
+		try {
+			for (List<Substrategy> pipeline : pPipelines) {
+				if (!aEvaluations.containsKey(pipeline)) {
+					pending.add(executor.submit(() -> evaluate(pipeline)));
+				}
+			}
+			for (Future<Evaluation> future : pending) {
+				Evaluation evaluation = future.get();
+				aEvaluations.put(evaluation.getSubstrategies(), evaluation);
+			}
+		}
+		catch (ExecutionException exception) {
+			throw new IllegalStateException("A pipeline evaluation failed", exception.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		List<Evaluation> evaluations = new ArrayList<>();
+		for (List<Substrategy> pipeline : pPipelines) {
+			evaluations.add(aEvaluations.get(pipeline));
+		}
+		return evaluations;
+	}
+
+	/*
+	 * Plays the corpus with pPipeline on the calling thread.
+	 */
+	private Evaluation evaluate(List<Substrategy> pPipeline) {
+		GameModel model = new GameModel(new GreedyPlayingStrategy.Builder().addAll(pPipeline).build());
+		long start = cpuTime();
+		int wins = 0;
+		for (int game = 0; game < aNumberOfGames; game++) {
+			model.reset(aSeed + game);
+			while (model.tryToAutoPlay()) {
+				// Play until the strategy has no move left
+			}
+			if (model.isCompleted()) {
+				wins++;
+			}
+		}
+		return new Evaluation(pPipeline, aNumberOfGames, wins, cpuTime() - start);
+	}
+
+	/*
+	 * The CPU time of the current thread, or the wall-clock time if the JVM
+	 * cannot measure it.
+	 */
+	private static long cpuTime() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads.isCurrentThreadCpuTimeSupported()) {
+			return threads.getCurrentThreadCpuTime();
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * The outcome of playing the corpus with one pipeline. Immutable.
+	 */
+	public static final class Evaluation {
+		private final List<Substrategy> aSubstrategies;
+		private final int aNumberOfGames;
+		private final int aNumberOfWins;
+		private final long aCpuNanos;
+
+		Evaluation(List<Substrategy> pSubstrategies, int pNumberOfGames, int pNumberOfWins, long pCpuNanos) {
+			aSubstrategies = List.copyOf(pSubstrategies);
+			aNumberOfGames = pNumberOfGames;
+			aNumberOfWins = pNumberOfWins;
+			aCpuNanos = pCpuNanos;
+		}
+
+		/**
+		 * @return The pipeline evaluated.
+		 */
+		public List<Substrategy> getSubstrategies() {
+			return aSubstrategies;
+		}
+
+		/**
+		 * @return The number of games played.
+		 */
+		public int getNumberOfGames() {
+			return aNumberOfGames;
+		}
+
+		/**
+		 * @return The number of games won.
+		 */
+		public int getNumberOfWins() {
+			return aNumberOfWins;
+		}
+
+		/**
+		 * @return The CPU time taken to play all the games, in nanoseconds.
+		 */
+		public long getCpuNanos() {
+			return aCpuNanos;
+		}
+
+		/**
+		 * @return The number of games won per second of CPU time.
+		 */
+		public double getWinsPerCpuSecond() {
+			return aNumberOfWins / (Math.max(aCpuNanos, 1) / NANOS_PER_SECOND);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d/%d won, %.1f wins per CPU second",
+					GreedyPlayingStrategy.toConfiguration(aSubstrategies), aNumberOfWins, aNumberOfGames,
+					getWinsPerCpuSecond());
+		}
+	}
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy.Substrategy;
+
+/**
+ * Aggregates, for each substrategy of GreedyPlayingStrategy, the number of
+ * times it was tried, the number of times it found a move, and a histogram of
+ * the time it took, in nanoseconds. Like GameStatistics, it can be updated by
+ * many threads at once and read while it is being updated, in particular
+ * through JMX (see SubstrategyStatisticsMXBean).
+ */
+public final class SubstrategyStatistics implements SubstrategyStatisticsMXBean {
+	private static final Substrategy[] SUBSTRATEGIES = Substrategy.values();
+	private static final double P99 = 99;
+	private static final int TO_PERCENT = 100;
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private final LongAdder[] aInvocations = new LongAdder[SUBSTRATEGIES.length];
+	private final LongAdder[] aHits = new LongAdder[SUBSTRATEGIES.length];
+	private final Histogram[] aTimes = new Histogram[SUBSTRATEGIES.length];
+
+	/**
+	 * Creates empty statistics.
+	 */
+	public SubstrategyStatistics() {
+		for (int i = 0; i < SUBSTRATEGIES.length; i++) {
+			aInvocations[i] = new LongAdder();
+			aHits[i] = new LongAdder();
+			aTimes[i] = new Histogram();
+		}
+	}
+
+	/**
+	 * Records one invocation of pSubstrategy.
+	 * 
+	 * @param pSubstrategy The substrategy tried.
+	 * @param pHit True if the substrategy found a move.
+	 * @param pNanos The time it took, in nanoseconds.
+	 * @pre pSubstrategy != null && pNanos >= 0
+	 */
+	public void record(Substrategy pSubstrategy, boolean pHit, long pNanos) {
+		assert pSubstrategy != null && pNanos >= 0;
+		int index = pSubstrategy.ordinal();
+		aInvocations[index].increment();
+		if (pHit) {
+			aHits[index].increment();
+		}
+		aTimes[index].record(pNanos);
+	}
+
+	/**
+	 * @param pSubstrategy A substrategy.
+	 * @return The number of times pSubstrategy was tried.
+	 */
+	public long getInvocations(Substrategy pSubstrategy) {
+		return aInvocations[pSubstrategy.ordinal()].sum();
+	}
+
+	/**
+	 * @param pSubstrategy A substrategy.
+	 * @return The number of times pSubstrategy found a move.
+	 */
+	public long getHits(Substrategy pSubstrategy) {
+		return aHits[pSubstrategy.ordinal()].sum();
+	}
+
+	/**
+	 * @param pSubstrategy A substrategy.
+	 * @return The histogram of the time taken by pSubstrategy, in
+	 *     nanoseconds.
+	 */
+	public Histogram getTimes(Substrategy pSubstrategy) {
+		return aTimes[pSubstrategy.ordinal()];
+	}
+
+	@Override
+	public String[] getSubstrategies() {
+		String[] names = new String[SUBSTRATEGIES.length];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = SUBSTRATEGIES[i].name();
+		}
+		return names;
+	}
+
+	@Override
+	public long[] getInvocationCounts() {
+		long[] counts = new long[SUBSTRATEGIES.length];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = aInvocations[i].sum();
+		}
+		return counts;
+	}
+
+	@Override
+	public long[] getHitCounts() {
+		long[] counts = new long[SUBSTRATEGIES.length];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = aHits[i].sum();
+		}
+		return counts;
+	}
+
+	@Override
+	public long[] getTotalNanos() {
+		long[] totals = new long[SUBSTRATEGIES.length];
+		for (int i = 0; i < totals.length; i++) {
+			Histogram.Snapshot times = aTimes[i].snapshot();
+			totals[i] = Math.round(times.getMean() * times.getCount());
+		}
+		return totals;
+	}
+
+	@Override
+	public double[] getMeanNanos() {
+		double[] means = new double[SUBSTRATEGIES.length];
+		for (int i = 0; i < means.length; i++) {
+			means[i] = aTimes[i].snapshot().getMean();
+		}
+		return means;
+	}
+
+	@Override
+	public long[] getP99Nanos() {
+		long[] percentiles = new long[SUBSTRATEGIES.length];
+		for (int i = 0; i < percentiles.length; i++) {
+			percentiles[i] = aTimes[i].snapshot().getValueAtPercentile(P99);
+		}
+		return percentiles;
+	}
+
+	/**
+	 * @return A table with one line per substrategy, giving the number of
+	 *     invocations, the hit rate, and the mean, 99th percentile and total
+	 *     time of the substrategy.
+	 */
+	public String report() {
+		StringBuilder result = new StringBuilder(String.format("%-32s %12s %7s %9s %9s %12s%n", "Substrategy",
+				"Invocations", "Hits", "Mean ns", "p99 ns", "Total ms"));
+		long[] invocations = getInvocationCounts();
+		long[] hits = getHitCounts();
+		double[] means = getMeanNanos();
+		long[] percentiles = getP99Nanos();
+		long[] totals = getTotalNanos();
+		for (int i = 0; i < SUBSTRATEGIES.length; i++) {
+			double hitRate = 0;
+			if (invocations[i] > 0) {
+				hitRate = (double) hits[i] / invocations[i] * TO_PERCENT;
+			}
+			result.append(String.format("%-32s %12d %6.1f%% %9.0f %9d %12.1f%n", SUBSTRATEGIES[i].name(),
+					invocations[i], hitRate, means[i], percentiles[i], totals[i] / NANOS_PER_MILLI));
+		}
+		return result.toString();
+	}
+}
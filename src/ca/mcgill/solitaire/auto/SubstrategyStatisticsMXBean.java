@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+/**
+ * The management interface of SubstrategyStatistics, which exposes its
+ * counters through JMX. All arrays have one element per substrategy, in the
+ * order of getSubstrategies, and all durations are in nanoseconds.
+ */
+public interface SubstrategyStatisticsMXBean {
+	/**
+	 * @return The names of the substrategies, in the order in which they are
+	 *     tried.
+	 */
+	String[] getSubstrategies();
+
+	/**
+	 * @return The number of times each substrategy was tried.
+	 */
+	long[] getInvocationCounts();
+
+	/**
+	 * @return The number of times each substrategy found a move.
+	 */
+	long[] getHitCounts();
+
+	/**
+	 * @return The total time spent in each substrategy.
+	 */
+	long[] getTotalNanos();
+
+	/**
+	 * @return The mean time taken by each substrategy.
+	 */
+	double[] getMeanNanos();
+
+	/**
+	 * @return The 99th percentile of the time taken by each substrategy.
+	 */
+	long[] getP99Nanos();
+}
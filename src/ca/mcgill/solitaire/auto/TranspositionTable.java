@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.util.Arrays;
+
+/**
+ * A set of 64-bit position hashes with a bounded capacity. The table is
+ * divided in small buckets of slots: a hash can only be stored in the bucket
+ * selected by its bits, and when that bucket is full, the hash that was
+ * stored or looked up the least recently is evicted. The memory used by the
+ * table is allocated once, when it is created.
+ * 
+ * Because entries can be evicted, a hash that was added may later be reported
+ * as absent, but a hash that was never added is only reported as present in
+ * the (negligibly rare) case of a collision.
+ */
+final class TranspositionTable {
+	private static final int WAYS = 4;
+	private static final int HALF_LONG = 32;
+
+	/*
+	 * Hash stored in the slots that are empty. A hash that happens to be
+	 * equal to it is stored as REPLACEMENT instead.
+	 */
+	private static final long EMPTY = 0;
+	private static final long REPLACEMENT = 1;
+
+	private final long[] aHashes;
+	private final long[] aStamps;
+	private final int aBucketMask;
+	private long aClock;
+	private int aSize;
+	private long aEvictions;
+
+	/**
+	 * Creates an empty table.
+	 * 
+	 * @param pCapacity The maximum number of hashes in the table. It is rounded
+	 *     up to a power of two of at least four.
+	 * @pre pCapacity > 0 && pCapacity <= 2^30
+	 */
+	TranspositionTable(int pCapacity) {
+		assert pCapacity > 0 && pCapacity <= 1 << (HALF_LONG - 2);
+		int buckets = 1;
+		while (buckets * WAYS < pCapacity) {
+			buckets *= 2;
+		}
+		aHashes = new long[buckets * WAYS];
+		aStamps = new long[buckets * WAYS];
+		aBucketMask = buckets - 1;
+	}
+
+	/**
+	 * Returns whether pHash is in the table. If it is, it becomes the most
+	 * recently used hash of its bucket.
+	 * 
+	 * @param pHash The hash to look up.
+	 * @return True if pHash is in the table.
+	 */
+	boolean contains(long pHash) {
+		long hash = normalize(pHash);
+		int first = bucket(hash);
+		for (int slot = first; slot < first + WAYS; slot++) {
+			if (aHashes[slot] == hash) {
+				aStamps[slot] = ++aClock;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds pHash to the table, evicting the least recently used hash of its
+	 * bucket if the bucket is full.
+	 * 
+	 * @param pHash The hash to add.
+	 * @pre !contains(pHash)
+	 */
+	void add(long pHash) {
+		long hash = normalize(pHash);
+		int first = bucket(hash);
+		int victim = first;
+		for (int slot = first; slot < first + WAYS; slot++) {
+			if (aHashes[slot] == EMPTY) {
+				victim = slot;
+				aSize++;
+				break;
+			}
+			if (aStamps[slot] < aStamps[victim]) {
+				victim = slot;
+			}
+		}
+		if (aHashes[victim] != EMPTY) {
+			aEvictions++;
+		}
+		aHashes[victim] = hash;
+		aStamps[victim] = ++aClock;
+	}
+
+	/**
+	 * Removes all the hashes from the table.
+	 */
+	void clear() {
+		Arrays.fill(aHashes, EMPTY);
+		Arrays.fill(aStamps, 0);
+		aClock = 0;
+		aSize = 0;
+		aEvictions = 0;
+	}
+
+	/**
+	 * @return The maximum number of hashes in the table.
+	 */
+	int capacity() {
+		return aHashes.length;
+	}
+
+	/**
+	 * @return The number of hashes in the table.
+	 */
+	int size() {
+		return aSize;
+	}
+
+	/**
+	 * @return The number of hashes evicted since the table was created or
+	 *     last cleared.
+	 */
+	long evictions() {
+		return aEvictions;
+	}
+
+	private int bucket(long pHash) {
+		return ((int) (pHash ^ pHash >>> HALF_LONG) & aBucketMask) * WAYS;
+	}
+
+	private static long normalize(long pHash) {
+		if (pHash == EMPTY) {
+			return REPLACEMENT;
+		}
+		return pHash;
+	}
+}
@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import ca.mcgill.solitaire.model.CompactGameState;
+import ca.mcgill.solitaire.model.GameModelEvent;
+import ca.mcgill.solitaire.model.GameModelListener;
+import ca.mcgill.solitaire.model.GameModelView;
+
+/**
+ * Estimates, in the background, the probability that the current position of
+ * a game can still be won. The estimator samples orders of the cards that the
+ * player cannot see, in the manner of MonteCarloPlayingStrategy, and checks
+ * whether a Solver with perfect information can win each sample within a
+ * limited number of positions. It is the chance that the hidden cards allow
+ * a win, for a player who would always find the winning line. Samples that
+ * the solver cannot decide within its limit are often the hardest ones, so
+ * they are not left out: the estimate is a range of proportions over all the
+ * samples, from the proportion won if every undecided sample is lost to the
+ * proportion won if every undecided sample is won, with a 95% confidence
+ * interval around the range.
+ * 
+ * An estimation works on a snapshot of the game, never on the game itself. A
+ * fixed number of samples is shared by a number of tasks submitted to an
+ * executor, and the estimate is published to a consumer every time a sample is
+ * solved, so that clients can show it as it gets more precise. The consumer
+ * is called on the threads of the executor, one call at a time, and must not
+ * start or cancel estimations.
+ * 
+ * As a GameModelListener, the estimator restarts whenever the game changes:
+ * the work left on the previous position is cancelled, and no estimate of the
+ * previous position is published once the new estimation has started.
+ */
+public final class WinProbabilityEstimator implements GameModelListener {
+	private static final int TABLE_CAPACITY = 1 << 16;
+	private static final double Z_95 = 1.96;
+	private static final int TO_PERCENT = 100;
+
+	private final GameModelView aModel;
+	private final ExecutorService aExecutor;
+	private final int aNumberOfTasks;
+	private final int aNumberOfSamples;
+	private final long aNodeLimit;
+	private final Consumer<Estimate> aConsumer;
+	private final SplittableRandom aRandom = new SplittableRandom();
+	private volatile Estimation aEstimation; // Null if none was started
+
+	/**
+	 * Creates an estimator. No estimation is started until start is called or
+	 * the game changes.
+	 * 
+	 * @param pModel The game whose position is estimated.
+	 * @param pExecutor Runs the estimations.
+	 * @param pNumberOfTasks The number of tasks that decide samples in
+	 *     parallel.
+	 * @param pNumberOfSamples The number of samples per estimation.
+	 * @param pNodeLimit The maximum number of positions visited by the solver
+	 *     for each sample.
+	 * @param pConsumer Receives the estimates.
+	 * @pre pModel != null && pExecutor != null && pNumberOfTasks > 0 &&
+	 *     pNumberOfSamples > 0 && pNodeLimit > 0 && pConsumer != null
+	 */
+	public WinProbabilityEstimator(GameModelView pModel, ExecutorService pExecutor, int pNumberOfTasks,
+			int pNumberOfSamples, long pNodeLimit, Consumer<Estimate> pConsumer) {
+		assert pModel != null && pExecutor != null && pNumberOfTasks > 0 && pNumberOfSamples > 0 && pNodeLimit > 0 &&
+				pConsumer != null;
+		aModel = pModel;
+		aExecutor = pExecutor;
+		aNumberOfTasks = pNumberOfTasks;
+		aNumberOfSamples = pNumberOfSamples;
+		aNodeLimit = pNodeLimit;
+		aConsumer = pConsumer;
+	}
+
+	/**
+	 * Cancels the current estimation, if any, and starts estimating the
+	 * current position of the game. Must be called on the thread that changes
+	 * the game.
+	 */
+	public synchronized void start() {
+		cancel();
+		Estimation estimation = new Estimation(aModel.snapshot());
+		aEstimation = estimation; // Before any task runs, so that getEstimate never returns a cancelled estimate
+		for (int i = 0; i < aNumberOfTasks; i++) {
+			SplittableRandom random = aRandom.split();
+			estimation.aTasks.add(aExecutor.submit(() -> estimation.run(random)));
+		}
+	}
+
+	/**
+	 * Cancels the current estimation, if any. No estimate is published after
+	 * this method returns, until the next estimation starts.
+	 */
+	public synchronized void cancel() {
+		if (aEstimation != null) {
+			aEstimation.cancel();
+		}
+	}
+
+	/**
+	 * @return The latest estimate of the current estimation, or null if no
+	 *     sample was solved yet.
+	 */
+	public Estimate getEstimate() {
+		Estimation estimation = aEstimation;
+		if (estimation == null) {
+			return null;
+		}
+		return estimation.getEstimate();
+	}
+
+	@Override
+	public void gameStateChanged(GameModelEvent pEvent) {
+		start();
+	}
+
+	/*
+	 * The samples of one position. The counters are guarded by the lock of
+	 * the estimation.
+	 */
+	private final class Estimation {
+		private final CompactGameState aState;
+		private final AtomicInteger aNextSample = new AtomicInteger();
+		private final List<Future<?>> aTasks = new ArrayList<>();
+		private int aSolved;
+		private int aWon;
+		private int aUndecided;
+		private boolean aCancelled;
+		private Estimate aLatest;
+
+		Estimation(CompactGameState pState) {
+			aState = pState;
+		}
+
+		/*
+		 * Solves samples until there are none left or the estimation is
+		 * cancelled.
+		 */
+		void run(SplittableRandom pRandom) {
+			Solver solver = new Solver(TABLE_CAPACITY, aNodeLimit, true);
+			while (!isCancelled() && aNextSample.getAndIncrement() < aNumberOfSamples) {
+				CompactGameState sample = new CompactGameState(aState);
+				sample.shuffleHiddenCards(pRandom);
+				record(solver.solve(sample));
+			}
+		}
+
+		synchronized void record(Solver.Status pStatus) {
+			if (aCancelled) {
+				return;
+			}
+			aSolved++;
+			if (pStatus == Solver.Status.SOLVED) {
+				aWon++;
+			}
+			else if (pStatus == Solver.Status.UNKNOWN) {
+				aUndecided++;
+			}
+			aLatest = new Estimate(aSolved, aWon, aUndecided, aNumberOfSamples);
+			aConsumer.accept(aLatest);
+		}
+
+		synchronized boolean isCancelled() {
+			return aCancelled;
+		}
+
+		synchronized Estimate getEstimate() {
+			return aLatest;
+		}
+
+		synchronized void cancel() {
+			aCancelled = true;
+			for (Future<?> task : aTasks) {
+				task.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * The range of proportions of the samples solved so far that can be won,
+	 * from the proportion of samples won to the proportion of samples won or
+	 * undecided, with a 95% confidence interval around the range. The bounds
+	 * of the interval are those of Wilson score intervals, so that they stay
+	 * within 0 and 1 even for few samples or extreme proportions. When most
+	 * samples are undecided, the range is wide rather than biased towards the
+	 * samples that are easy to decide. Immutable.
+	 */
+	public static final class Estimate {
+		private final int aSamples;
+		private final int aWins;
+		private final int aUndecided;
+		private final int aTotalSamples;
+
+		/**
+		 * @param pSamples The number of samples solved, decided or not.
+		 * @param pWins The number of samples won.
+		 * @param pUndecided The number of samples that the solver could not
+		 *     decide.
+		 * @param pTotalSamples The number of samples of the estimation.
+		 * @pre pSamples > 0 && pWins >= 0 && pUndecided >= 0 &&
+		 *     pWins + pUndecided <= pSamples && pSamples <= pTotalSamples
+		 */
+		public Estimate(int pSamples, int pWins, int pUndecided, int pTotalSamples) {
+			assert pSamples > 0 && pWins >= 0 && pUndecided >= 0 && pWins + pUndecided <= pSamples &&
+					pSamples <= pTotalSamples;
+			aSamples = pSamples;
+			aWins = pWins;
+			aUndecided = pUndecided;
+			aTotalSamples = pTotalSamples;
+		}
+
+		/**
+		 * @return The number of samples solved, decided or not.
+		 */
+		public int getSamples() {
+			return aSamples;
+		}
+
+		/**
+		 * @return The number of samples won.
+		 */
+		public int getWins() {
+			return aWins;
+		}
+
+		/**
+		 * @return The number of samples that the solver could not decide.
+		 */
+		public int getUndecided() {
+			return aUndecided;
+		}
+
+		/**
+		 * @return True if all the samples of the estimation were solved.
+		 */
+		public boolean isComplete() {
+			return aSamples == aTotalSamples;
+		}
+
+		/**
+		 * @return The proportion of samples won, as if every undecided sample
+		 *     was lost.
+		 */
+		public double getMinimumProbability() {
+			return (double) aWins / aSamples;
+		}
+
+		/**
+		 * @return The proportion of samples won or undecided, as if every
+		 *     undecided sample was won.
+		 */
+		public double getMaximumProbability() {
+			return (double) (aWins + aUndecided) / aSamples;
+		}
+
+		/**
+		 * @return The lower bound of the confidence interval of the minimum
+		 *     probability.
+		 */
+		public double getLowerBound() {
+			double probability = getMinimumProbability();
+			return Math.max(0, center(probability) - margin(probability));
+		}
+
+		/**
+		 * @return The upper bound of the confidence interval of the maximum
+		 *     probability.
+		 */
+		public double getUpperBound() {
+			double probability = getMaximumProbability();
+			return Math.min(1, center(probability) + margin(probability));
+		}
+
+		private double center(double pProbability) {
+			return (pProbability + Z_95 * Z_95 / (2 * aSamples)) / (1 + Z_95 * Z_95 / aSamples);
+		}
+
+		private double margin(double pProbability) {
+			return Z_95 / (1 + Z_95 * Z_95 / aSamples) *
+					Math.sqrt(pProbability * (1 - pProbability) / aSamples + Z_95 * Z_95 / 4 / aSamples / aSamples);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%.0f%%-%.0f%% (%.0f%%-%.0f%%, %d undecided, %d/%d samples)",
+					getMinimumProbability() * TO_PERCENT, getMaximumProbability() * TO_PERCENT, getLowerBound() * TO_PERCENT,
+					getUpperBound() * TO_PERCENT, aUndecided, aSamples, aTotalSamples);
+		}
+	}
+}
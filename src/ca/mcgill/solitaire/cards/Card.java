@@ -20,9 +20,6 @@
  *******************************************************************************/
 package ca.mcgill.solitaire.cards;
 
-import java.util.EnumMap;
-import java.util.Map;
-
 /**
  * An immutable description of a playing card. This abstraction is designed to
  * be independent of game logic, so it does not provide any service that relies
@@ -35,26 +32,35 @@ import java.util.Map;
  * the equals method when two non-null card arguments are provided.
  */
 public final class Card {
-	private static final Map<Suit, Map<Rank, Card>> CARDS = new EnumMap<>(Suit.class);
+	private static final int NUMBER_OF_RANKS = Rank.values().length;
+
+	/**
+	 * The number of distinct cards.
+	 */
+	public static final int NUMBER_OF_CARDS = NUMBER_OF_RANKS * Suit.values().length;
+
+	private static final Card[] BY_ORDINAL = new Card[NUMBER_OF_CARDS];
 
 	/*
 	 * Create the flyweight objects eagerly.
 	 */
 	static {
 		for (Suit suit : Suit.values()) {
-			Map<Rank, Card> forSuit = CARDS.computeIfAbsent(suit, key -> new EnumMap<>(Rank.class));
 			for (Rank rank : Rank.values()) {
-				forSuit.put(rank, new Card(rank, suit));
+				Card card = new Card(rank, suit);
+				BY_ORDINAL[card.aOrdinal] = card;
 			}
 		}
 	}
 	
 	private final Rank aRank;
 	private final Suit aSuit;
+	private final int aOrdinal;
 	
 	private Card(Rank pRank, Suit pSuit) {
 		aRank = pRank;
 		aSuit = pSuit;
+		aOrdinal = pSuit.ordinal() * NUMBER_OF_RANKS + pRank.ordinal();
 	}
 	
 	/**
@@ -66,7 +72,31 @@ public final class Card {
 	 */
 	public static Card get(Rank pRank, Suit pSuit) {
 		assert pRank != null && pSuit != null;
-		return CARDS.get(pSuit).get(pRank);
+		return BY_ORDINAL[pSuit.ordinal() * NUMBER_OF_RANKS + pRank.ordinal()];
+	}
+	
+	/**
+	 * Get a flyweight Card object from its ordinal.
+	 * 
+	 * @param pOrdinal The ordinal of the card, as returned by ordinal().
+	 * @return The card object with ordinal pOrdinal.
+	 * @pre pOrdinal >= 0 && pOrdinal < NUMBER_OF_CARDS
+	 */
+	public static Card get(int pOrdinal) {
+		assert pOrdinal >= 0 && pOrdinal < NUMBER_OF_CARDS;
+		return BY_ORDINAL[pOrdinal];
+	}
+	
+	/**
+	 * Obtain a number that uniquely identifies this card, between 0 and 51
+	 * inclusively. Cards are numbered by suit, then rank, so that the Ace of
+	 * Clubs is 0 and the King of Spades is 51. Ordinals make it possible to
+	 * index arrays and bit sets by card.
+	 * 
+	 * @return The ordinal of this card.
+	 */
+	public int ordinal() {
+		return aOrdinal;
 	}
 	
 	/**
@@ -20,17 +20,24 @@
  *******************************************************************************/
 package ca.mcgill.solitaire.cards;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
 
 /**
  * Represents a general-purpose stack of cards.
+ * 
+ * Because a card can only appear once in a stack, a stack holds at most 52
+ * cards. The cards are stored as their ordinal in a fixed-size array, from
+ * bottom to top, and the set of cards in the stack is tracked with a 64-bit
+ * mask indexed by card ordinal, so that pushing, popping and checking whether
+ * a card is in the stack all take constant time.
  */
 public class CardStack implements Iterable<Card> {
 	
-	private final List<Card> aCards = new ArrayList<>();
+	private final byte[] aCards = new byte[Card.NUMBER_OF_CARDS];
+	private int aSize;
+	private long aMembers;
 	
 	/**
 	 * Creates an empty CardStack.
@@ -44,8 +51,15 @@ public class CardStack implements Iterable<Card> {
 	 * @param pCards The cards to initialize the stack with.
 	 */
 	public CardStack(Iterable<Card> pCards) {
-		for (Card card : pCards) {
-			aCards.add(card);
+		if (pCards instanceof CardStack stack) {
+			System.arraycopy(stack.aCards, 0, aCards, 0, stack.aSize);
+			aSize = stack.aSize;
+			aMembers = stack.aMembers;
+		}
+		else {
+			for (Card card : pCards) {
+				add(card);
+			}
 		}
 	}
 	
@@ -54,11 +68,20 @@ public class CardStack implements Iterable<Card> {
 	 * 
 	 * @param pCard The card to push.
 	 * @pre pCard != null;
-	 * @pre !aCards.contains(pCard)
+	 * @pre !contains(pCard)
 	 */
 	public void push(Card pCard) {
-		assert pCard != null && !aCards.contains(pCard);
-		aCards.add(pCard);
+		add(pCard);
+	}
+
+	/*
+	 * Implements push, in a method that subclasses cannot override so that it
+	 * can be used by the constructor.
+	 */
+	private void add(Card pCard) {
+		assert pCard != null && (aMembers & 1L << pCard.ordinal()) == 0;
+		aCards[aSize++] = (byte) pCard.ordinal();
+		aMembers |= 1L << pCard.ordinal();
 	}
 	
 	/**
@@ -69,7 +92,9 @@ public class CardStack implements Iterable<Card> {
 	 */
 	public Card pop() {
 		assert !isEmpty();
-		return aCards.removeLast();
+		int card = aCards[--aSize];
+		aMembers &= ~(1L << card);
+		return Card.get(card);
 	}
 	
 	/**
@@ -81,7 +106,7 @@ public class CardStack implements Iterable<Card> {
 	 */
 	public Card peekTop() {
 		assert !isEmpty();
-		return aCards.getLast();
+		return Card.get(aCards[aSize - 1]);
 	}
 	
 	/**
@@ -93,37 +118,85 @@ public class CardStack implements Iterable<Card> {
 	 */
 	public Card peekBottom() {
 		assert !isEmpty();
-		return aCards.getFirst();
+		return Card.get(aCards[0]);
+	}
+	
+	/**
+	 * Returns the card at position pIndex in the stack, without removing it.
+	 * 
+	 * @param pIndex The position of the card, where 0 is the bottom of the
+	 *     stack and size()-1 its top.
+	 * @return The card at position pIndex.
+	 * @pre pIndex >= 0 && pIndex < size()
+	 */
+	public Card peek(int pIndex) {
+		assert pIndex >= 0 && pIndex < size();
+		return Card.get(aCards[pIndex]);
+	}
+	
+	/**
+	 * @param pCard The card to look for.
+	 * @return True if pCard is in the stack.
+	 * @pre pCard != null
+	 */
+	public boolean contains(Card pCard) {
+		assert pCard != null;
+		return (aMembers & 1L << pCard.ordinal()) != 0;
 	}
 	
 	/**
 	 * @return The number of cards in the stack.
 	 */
 	public int size() {
-		return aCards.size();
+		return aSize;
 	}
 	
 	/**
 	 * Removes all the cards in the stack.
 	 */
 	public void clear() {
-		aCards.clear();
+		aSize = 0;
+		aMembers = 0;
 	}
 	
 	/**
 	 * @return True if and only if the stack has no cards in it.
 	 */
 	public boolean isEmpty() {
-		return aCards.isEmpty();
+		return aSize == 0;
 	}
 	
 	@Override
 	public String toString() {
-		return aCards.toString();
+		StringJoiner result = new StringJoiner(", ", "[", "]");
+		for (int i = 0; i < aSize; i++) {
+			result.add(Card.get(aCards[i]).toString());
+		}
+		return result.toString();
 	}
 
+	/**
+	 * Iterates over the cards from the bottom of the stack to its top. The
+	 * iterator does not support removal, and its behavior is unspecified if
+	 * the stack is modified during iteration.
+	 */
 	@Override
 	public Iterator<Card> iterator() {
-		return Collections.unmodifiableList(aCards).iterator();
+		return new Iterator<>() {
+			private int aNext;
+
+			@Override
+			public boolean hasNext() {
+				return aNext < aSize;
+			}
+
+			@Override
+			public Card next() {
+				if (aNext >= aSize) {
+					throw new NoSuchElementException();
+				}
+				return Card.get(aCards[aNext++]);
+			}
+		};
 	}
 }
@@ -22,12 +22,17 @@ package ca.mcgill.solitaire.cards;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
- * Represents a deck of 52 cards in random order.
+ * Represents a deck of 52 cards in random order. The order can be made
+ * reproducible by shuffling the deck with a seed or with a caller-supplied
+ * source of randomness.
  */
-public class Deck {
+public class Deck implements Iterable<Card> {
 	private CardStack aCards;
 
 	/**
@@ -41,14 +46,63 @@ public class Deck {
 	 * Reinitializes the deck with all 52 cards, and shuffles them.
 	 */
 	public void shuffle() {
+		List<Card> cards = allCards();
+		Collections.shuffle(cards);
+		aCards = new CardStack(cards);
+	}
+
+	/**
+	 * Reinitializes the deck with all 52 cards, and shuffles them in an order
+	 * that only depends on pSeed. Shuffling two decks with the same seed
+	 * always results in the same order of cards.
+	 * 
+	 * @param pSeed The seed that determines the order of the cards.
+	 */
+	public void shuffle(long pSeed) {
+		shuffle(new SplittableRandom(pSeed));
+	}
+
+	/**
+	 * Reinitializes the deck with all 52 cards, and shuffles them using
+	 * pRandom as the source of randomness. This makes it possible for
+	 * concurrent users to shuffle decks without contending on a shared
+	 * generator, for example by giving each thread its own split of a
+	 * SplittableRandom.
+	 * 
+	 * @param pRandom The generator to use for shuffling.
+	 * @pre pRandom != null
+	 */
+	public void shuffle(RandomGenerator pRandom) {
+		assert pRandom != null;
+		List<Card> cards = allCards();
+		Collections.shuffle(cards, pRandom);
+		aCards = new CardStack(cards);
+	}
+
+	/**
+	 * Reinitializes the deck with the cards in pCards, in the same order as
+	 * they would be returned by iterating over a deck: the last card of pCards
+	 * is the first to be drawn. Restoring the order of a shuffled deck
+	 * recreates the same deal.
+	 * 
+	 * @param pCards All 52 cards, in order from the bottom of the deck to its
+	 *     top.
+	 * @pre pCards != null and contains each card exactly once.
+	 */
+	public void restore(Iterable<Card> pCards) {
+		assert pCards != null;
+		aCards = new CardStack(pCards);
+		assert aCards.size() == Card.NUMBER_OF_CARDS;
+	}
+
+	private static List<Card> allCards() {
 		List<Card> cards = new ArrayList<>();
 		for (Suit suit : Suit.values()) {
 			for (Rank rank : Rank.values()) {
 				cards.add(Card.get(rank, suit));
 			}
 		}
-		Collections.shuffle(cards);
-		aCards = new CardStack(cards);
+		return cards;
 	}
 
 	/**
@@ -79,4 +133,34 @@ public class Deck {
 	public boolean isEmpty() {
 		return aCards.isEmpty();
 	}
+
+	/**
+	 * @return The number of cards left in the deck.
+	 */
+	public int size() {
+		return aCards.size();
+	}
+
+	/**
+	 * Returns the card at position pIndex in the deck, without drawing it.
+	 * 
+	 * @param pIndex The position of the card, where 0 is the bottom of the
+	 *     deck and size()-1 the next card to be drawn.
+	 * @return The card at position pIndex.
+	 * @pre pIndex >= 0 && pIndex < size()
+	 */
+	public Card peek(int pIndex) {
+		assert pIndex >= 0 && pIndex < size();
+		return aCards.peek(pIndex);
+	}
+
+	/**
+	 * Iterates over the cards in the deck without removing them, from the
+	 * bottom of the deck to its top. The last card returned is the next card
+	 * to be drawn.
+	 */
+	@Override
+	public Iterator<Card> iterator() {
+		return aCards.iterator();
+	}
 }
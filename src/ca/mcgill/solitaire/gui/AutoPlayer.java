@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.gui;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+import ca.mcgill.solitaire.auto.PlayingStrategy;
+import ca.mcgill.solitaire.model.CompactGameState;
+import ca.mcgill.solitaire.model.GameModel;
+import ca.mcgill.solitaire.model.Move;
+import javafx.animation.AnimationTimer;
+
+/**
+ * Plays the current game to the end without blocking the JavaFX application
+ * thread. The moves are chosen on a background thread, by a strategy playing
+ * on a snapshot of the game, and published to a queue. On the application
+ * thread, an AnimationTimer takes the moves from the queue and performs them
+ * on the game model, at most MOVES_PER_SECOND per second, so that the user can
+ * follow the game. The game model is thus only ever changed on the
+ * application thread.
+ * 
+ * Auto-play stops when the strategy cannot find a move, when stop is called,
+ * or when the game model is changed by anything else than this player, for
+ * example by the user.
+ */
+final class AutoPlayer {
+	private static final int MOVES_PER_SECOND = 10;
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+	private static final long NANOS_PER_MOVE = NANOS_PER_SECOND / MOVES_PER_SECOND;
+
+	/*
+	 * Marks the end of the moves in the queue.
+	 */
+	private static final int END_OF_MOVES = -1;
+
+	private final GameModel aModel;
+	private final Supplier<PlayingStrategy> aStrategyFactory;
+	private final ExecutorService aExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "AutoPlayer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private BlockingQueue<Integer> aMoves = new LinkedBlockingQueue<>();
+	private Future<?> aSearch; // Null when not playing
+	private AnimationTimer aTimer; // Created on demand
+	private long aExpectedHash;
+	private long aLastMoveTime;
+
+	/**
+	 * @param pModel The game model to play on.
+	 * @param pStrategyFactory Creates a new strategy for each game played.
+	 * @pre pModel != null && pStrategyFactory != null
+	 */
+	AutoPlayer(GameModel pModel, Supplier<PlayingStrategy> pStrategyFactory) {
+		assert pModel != null && pStrategyFactory != null;
+		aModel = pModel;
+		aStrategyFactory = pStrategyFactory;
+	}
+
+	/**
+	 * @return True if the player is playing a game.
+	 */
+	boolean isPlaying() {
+		return aSearch != null;
+	}
+
+	/**
+	 * Starts playing the current game to the end, and shows the moves as they
+	 * are played. Must be called on the application thread.
+	 */
+	void start() {
+		if (aTimer == null) {
+			aTimer = new AnimationTimer() {
+				@Override
+				public void handle(long pNow) {
+					if (pNow - aLastMoveTime >= NANOS_PER_MOVE) {
+						aLastMoveTime = pNow;
+						step();
+					}
+				}
+			};
+		}
+		startSearch();
+		aTimer.start();
+	}
+
+	/**
+	 * Stops playing. The moves already performed are kept.
+	 */
+	void stop() {
+		if (aSearch != null) {
+			aSearch.cancel(true);
+			aSearch = null;
+		}
+		if (aTimer != null) {
+			aTimer.stop();
+		}
+	}
+
+	/*
+	 * Starts choosing the moves on a background thread, from a snapshot of the
+	 * model. Each search publishes to its own queue, so that a cancelled search
+	 * cannot publish moves for the next one.
+	 */
+	void startSearch() {
+		stop();
+		CompactGameState state = aModel.snapshot();
+		PlayingStrategy strategy = aStrategyFactory.get();
+		BlockingQueue<Integer> moves = new LinkedBlockingQueue<>();
+		aMoves = moves;
+		aExpectedHash = aModel.getHash();
+		aSearch = aExecutor.submit(() -> {
+			Move move = strategy.getLegalMove(state);
+			while (!move.isNull() && !Thread.currentThread().isInterrupted()) {
+				move.perform();
+				moves.add(state.getMove(state.getNumberOfMoves() - 1));
+				move = strategy.getLegalMove(state);
+			}
+			moves.add(END_OF_MOVES);
+		});
+	}
+
+	/*
+	 * Performs the next move on the model, if it has already been chosen.
+	 * Returns false, after stopping the player, if auto-play must stop because
+	 * there are no more moves or the model was changed by something else.
+	 */
+	boolean step() {
+		if (aSearch == null || aModel.getHash() != aExpectedHash) {
+			stop();
+			return false;
+		}
+		Integer move = aMoves.poll();
+		if (move == null) {
+			return true; // Not chosen yet
+		}
+		if (move == END_OF_MOVES) {
+			stop();
+			return false;
+		}
+		aModel.decodeMove(move).perform();
+		aExpectedHash = aModel.getHash();
+		return true;
+	}
+}
@@ -20,68 +20,113 @@
  *******************************************************************************/
 package ca.mcgill.solitaire.gui;
 
-import java.util.IdentityHashMap;
-import java.util.Map;
-
 import ca.mcgill.solitaire.cards.Card;
-import ca.mcgill.solitaire.cards.Deck;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.image.Image;
 
 /**
  * A class to store and manage images of the 52 cards and the back of a card.
  * 
- * To function properly, all 53 images must be accessible from a folder at the
- * root of the path from which the class file for CardImages is loaded. If a
- * file is missing or corrupted, launching the application will fail with
- * "Exception in Application start method" indirectly caused by an
- * ExceptionInInitializerError because this class will fail to initialize.
+ * All cards are shown from a single sprite sheet, "cards.png", which must be
+ * accessible at the root of the path from which the class file for
+ * CardImages is loaded. The sheet has one row per suit, in the order of Suit,
+ * with the cards in the order of Rank, and a fifth row with the back of a
+ * card. An image view shows a card by displaying the sheet through the
+ * viewport of that card, so imageFor and imageForBackOfCard both return the
+ * sheet, and viewportFor and viewportForBackOfCard return the region of the
+ * sheet to show. The sheet is decoded once, the first time it is needed or
+ * when preload is called. If the file is missing or corrupted, the nested
+ * class that holds the sheet fails to initialize, and launching the
+ * application fails with "Exception in Application start method". The cause
+ * is an ExceptionInInitializerError if the sheet is first used on the JavaFX
+ * application thread, or a NoClassDefFoundError for CardImages$Sheet if it
+ * was first used, and failed, on the thread started by preload.
  */
 public final class CardImages {
-	private static final Image CARD_BACK = loadBackImage();
-	private static final Map<Card, Image> CARD_IMAGES = loadCardImages();
+	private static final String SHEET = "cards.png";
+	private static final int CARD_WIDTH = 73;
+	private static final int CARD_HEIGHT = 97;
+	private static final int BACK_ROW = 4;
+
+	private static final Rectangle2D[] CARD_VIEWPORTS = new Rectangle2D[Card.NUMBER_OF_CARDS];
+	private static final Rectangle2D BACK_VIEWPORT = viewport(0, BACK_ROW);
+
+	static {
+		for (int ordinal = 0; ordinal < Card.NUMBER_OF_CARDS; ordinal++) {
+			Card card = Card.get(ordinal);
+			CARD_VIEWPORTS[ordinal] = viewport(card.rank().ordinal(), card.suit().ordinal());
+		}
+	}
 
 	private CardImages() {}
 
 	/**
-	 * Return the image of a card.
+	 * Decodes the sprite sheet on a background thread, so that it is ready or
+	 * almost ready by the time the first image is needed. Calling this method
+	 * is optional.
+	 */
+	public static void preload() {
+		Thread loader = new Thread(() -> Sheet.IMAGE.getWidth(), "CardImages loader");
+		loader.setDaemon(true);
+		loader.start();
+	}
+
+	/**
+	 * Return the image that contains a card. It must be shown through the
+	 * viewport returned by viewportFor(pCard).
 	 * 
 	 * @param pCard the target card
-	 * @return An icon representing the chosen card.
+	 * @return The sprite sheet, which contains the chosen card.
 	 */
 	public static Image imageFor(Card pCard) {
 		assert pCard != null;
-		return CARD_IMAGES.get(pCard);
+		return Sheet.IMAGE;
+	}
+
+	/**
+	 * Return the region of the image of a card that represents it.
+	 * 
+	 * @param pCard the target card
+	 * @return The region of the sprite sheet that represents the chosen card.
+	 */
+	public static Rectangle2D viewportFor(Card pCard) {
+		assert pCard != null;
+		return CARD_VIEWPORTS[pCard.ordinal()];
 	}
 
 	/**
-	 * Return an image of the back of a card.
+	 * Return the image that contains the back of a card. It must be shown
+	 * through the viewport returned by viewportForBackOfCard().
 	 * 
-	 * @return An icon representing the back of a card.
+	 * @return The sprite sheet, which contains the back of a card.
 	 */
 	public static Image imageForBackOfCard() {
-		return CARD_BACK;
+		return Sheet.IMAGE;
 	}
 
-	private static Image loadBackImage() {
-		return new Image(CardImages.class.getClassLoader().getResourceAsStream("back.gif"));
+	/**
+	 * Return the region of the image of the back of a card that represents
+	 * it.
+	 * 
+	 * @return The region of the sprite sheet that represents the back of a
+	 *     card.
+	 */
+	public static Rectangle2D viewportForBackOfCard() {
+		return BACK_VIEWPORT;
 	}
 
 	/*
-	 * Loads images for all 52 cards in a map. Assumes that card objects are
-	 * flyweights.
+	 * The region at pColumn and pRow of the sprite sheet.
 	 */
-	private static Map<Card, Image> loadCardImages() {
-		Deck deck = new Deck();
-		Map<Card, Image> images = new IdentityHashMap<>();
-		while (!deck.isEmpty()) {
-			Card card = deck.draw();
-			Image image = new Image(CardImages.class.getClassLoader().getResourceAsStream(getFileNameFor(card)));
-			images.put(card, image);
-		}
-		return images;
+	private static Rectangle2D viewport(int pColumn, int pRow) {
+		return new Rectangle2D(pColumn * CARD_WIDTH, pRow * CARD_HEIGHT, CARD_WIDTH, CARD_HEIGHT);
 	}
 
-	private static String getFileNameFor(Card pCard) {
-		return String.format("%s-of-%s.gif", pCard.rank().name().toLowerCase(), pCard.suit().name().toLowerCase());
+	/*
+	 * Holds the sprite sheet, which the JVM loads the first time it is used,
+	 * on whichever thread uses it first.
+	 */
+	private static final class Sheet {
+		private static final Image IMAGE = new Image(CardImages.class.getClassLoader().getResourceAsStream(SHEET));
 	}
 }
@@ -20,17 +20,22 @@
  *******************************************************************************/
 package ca.mcgill.solitaire.gui;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import ca.mcgill.solitaire.cards.Card;
 import ca.mcgill.solitaire.cards.CardSerializer;
-import ca.mcgill.solitaire.cards.CardStack;
 import ca.mcgill.solitaire.model.GameModel;
+import ca.mcgill.solitaire.model.GameModelEvent;
 import ca.mcgill.solitaire.model.GameModelListener;
+import ca.mcgill.solitaire.model.PileView;
 import ca.mcgill.solitaire.model.TableauPile;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
 import javafx.scene.effect.DropShadow;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.input.DragEvent;
@@ -40,80 +45,118 @@ import javafx.scene.input.TransferMode;
 import javafx.scene.layout.StackPane;
 
 /**
- * Component that shows a stack of cards in the tableau.
+ * Component that shows a stack of cards in the tableau. The view has one
+ * image view per card of the pile, from the bottom card to the top card. When
+ * the pile changes, the existing image views are updated in place, and image
+ * views are only added or removed when the size of the pile changes. Removed
+ * image views are kept for reuse.
  */
-public class CardPileView extends StackPane implements GameModelListener {
+class CardPileView extends StackPane implements GameModelListener {
 	private static final int PADDING = 5;
 	private static final int Y_OFFSET = 17;
 	private static final ClipboardContent CLIPBOARD_CONTENT = new ClipboardContent();
 
 	private TableauPile aIndex;
 	private final GameModel aModel;
+	private final List<ImageView> aPool = new ArrayList<>();
+	private ImageView aHighlighted; // Null if no card is highlighted
 
-	CardPileView(GameModel pModel, TableauPile pIndex) {
+	CardPileView(GameModel pModel, CoalescingDispatcher pDispatcher, TableauPile pIndex) {
 		aModel = pModel;
 		aIndex = pIndex;
 		setPadding(new Insets(PADDING));
 		setAlignment(Pos.TOP_CENTER);
-		buildLayout();
-		aModel.addListener(this);
+		setOnDragOver(createDragOverHandler());
+		setOnDragEntered(createDragEnteredHandler());
+		setOnDragExited(createDragExitedHandler());
+		setOnDragDropped(createDragDroppedHandler());
+		updateLayout();
+		pDispatcher.addListener(this);
 	}
 
-	private Image getImage(Card pCard) {
+	private Rectangle2D getViewport(Card pCard) {
 		if (aModel.isVisibleInTableau(pCard)) {
-			return CardImages.imageFor(pCard);
+			return CardImages.viewportFor(pCard);
 		}
 		else {
-			return CardImages.imageForBackOfCard();
+			return CardImages.viewportForBackOfCard();
 		}
 	}
 
-	private void buildLayout() {
-		getChildren().clear();
-
-		int offset = 0;
-		CardStack stack = aModel.getTableauPile(aIndex);
-		if (stack.isEmpty()) { // this essentially acts as a spacer
-			ImageView image = new ImageView(CardImages.imageForBackOfCard());
-			image.setVisible(false);
-			getChildren().add(image);
+	/*
+	 * Brings the image views in line with the pile. An empty pile keeps one
+	 * invisible image view, which acts as a spacer.
+	 */
+	private void updateLayout() {
+		PileView pile = aModel.getTableauPileView(aIndex);
+		int size = Math.max(pile.size(), 1);
+		List<Node> children = getChildren();
+		while (children.size() > size) {
+			aPool.add((ImageView) children.remove(children.size() - 1));
+		}
+		while (children.size() < size) {
+			children.add(obtainImageView(children.size()));
+		}
+		if (pile.isEmpty()) {
+			ImageView spacer = (ImageView) children.get(0);
+			spacer.setImage(CardImages.imageForBackOfCard());
+			spacer.setViewport(CardImages.viewportForBackOfCard());
+			spacer.setVisible(false);
 			return;
 		}
-
-		for (Card cardView : stack) {
-			final ImageView image = new ImageView(getImage(cardView));
-			image.setTranslateY(Y_OFFSET * offset);
-			offset++;
-			getChildren().add(image);
-
-			setOnDragOver(createDragOverHandler(image, cardView));
-			setOnDragEntered(createDragEnteredHandler(image, cardView));
-			setOnDragExited(createDragExitedHandler(image, cardView));
-			setOnDragDropped(createDragDroppedHandler(image, cardView));
-
-			if (aModel.isVisibleInTableau(cardView)) {
-				image.setOnDragDetected(createDragDetectedHandler(image, cardView));
+		for (int offset = 0; offset < pile.size(); offset++) {
+			ImageView view = (ImageView) children.get(offset);
+			Rectangle2D viewport = getViewport(pile.get(offset));
+			if (view.getViewport() != viewport) {
+				view.setImage(CardImages.imageFor(pile.get(offset)));
+				view.setViewport(viewport);
 			}
+			view.setVisible(true);
 		}
 	}
 
-	private EventHandler<MouseEvent> createDragDetectedHandler(final ImageView pImageView, final Card pCard) {
+	/*
+	 * An image view for the card at pOffset in the pile, taken from the pool
+	 * if possible.
+	 */
+	private ImageView obtainImageView(int pOffset) {
+		ImageView view;
+		if (aPool.isEmpty()) {
+			view = new ImageView();
+			view.setOnDragDetected(createDragDetectedHandler(view));
+		}
+		else {
+			view = aPool.remove(aPool.size() - 1);
+		}
+		view.setTranslateY(Y_OFFSET * pOffset);
+		return view;
+	}
+
+	/*
+	 * The handler looks up the card shown by pImageView when the drag starts,
+	 * so that it remains valid when the image view is reused.
+	 */
+	private EventHandler<MouseEvent> createDragDetectedHandler(final ImageView pImageView) {
 		return new EventHandler<MouseEvent>() {
 			@Override
 			public void handle(MouseEvent pMouseEvent) {
-				Dragboard db = pImageView.startDragAndDrop(TransferMode.ANY);
-				CLIPBOARD_CONTENT.putString(CardSerializer.serialize(aModel.getSubpile(pCard)));
-				db.setContent(CLIPBOARD_CONTENT);
+				PileView pile = aModel.getTableauPileView(aIndex);
+				int offset = getChildren().indexOf(pImageView);
+				if (offset >= 0 && offset < pile.size() && aModel.isVisibleInTableau(pile.get(offset))) {
+					Dragboard db = pImageView.startDragAndDrop(TransferMode.ANY);
+					CLIPBOARD_CONTENT.putString(CardSerializer.serialize(aModel.getSubpile(pile.get(offset))));
+					db.setContent(CLIPBOARD_CONTENT);
+				}
 				pMouseEvent.consume();
 			}
 		};
 	}
 
-	private EventHandler<DragEvent> createDragOverHandler(final ImageView pImageView, final Card pCard) {
+	private EventHandler<DragEvent> createDragOverHandler() {
 		return new EventHandler<DragEvent>() {
 			@Override
 			public void handle(DragEvent pEvent) {
-				if (pEvent.getGestureSource() != pImageView && pEvent.getDragboard().hasString()) {
+				if (!getChildren().contains(pEvent.getGestureSource()) && pEvent.getDragboard().hasString()) {
 					if (aModel.isLegalMove(CardSerializer.deserializeBottomCard(pEvent.getDragboard().getString()),
 							aIndex)) {
 						pEvent.acceptTransferModes(TransferMode.MOVE);
@@ -124,30 +167,34 @@ public class CardPileView extends StackPane implements GameModelListener {
 		};
 	}
 
-	private EventHandler<DragEvent> createDragEnteredHandler(final ImageView pImageView, final Card pCard) {
+	private EventHandler<DragEvent> createDragEnteredHandler() {
 		return new EventHandler<DragEvent>() {
 			@Override
 			public void handle(DragEvent pEvent) {
 				if (aModel.isLegalMove(CardSerializer.deserializeBottomCard(pEvent.getDragboard().getString()),
 						aIndex)) {
-					pImageView.setEffect(new DropShadow());
+					aHighlighted = (ImageView) getChildren().get(getChildren().size() - 1);
+					aHighlighted.setEffect(new DropShadow());
 				}
 				pEvent.consume();
 			}
 		};
 	}
 
-	private EventHandler<DragEvent> createDragExitedHandler(final ImageView pImageView, final Card pCard) {
+	private EventHandler<DragEvent> createDragExitedHandler() {
 		return new EventHandler<DragEvent>() {
 			@Override
 			public void handle(DragEvent pEvent) {
-				pImageView.setEffect(null);
+				if (aHighlighted != null) {
+					aHighlighted.setEffect(null);
+					aHighlighted = null;
+				}
 				pEvent.consume();
 			}
 		};
 	}
 
-	private EventHandler<DragEvent> createDragDroppedHandler(final ImageView pImageView, final Card pCard) {
+	private EventHandler<DragEvent> createDragDroppedHandler() {
 		return new EventHandler<DragEvent>() {
 			@Override
 			public void handle(DragEvent pEvent) {
@@ -165,7 +212,9 @@ public class CardPileView extends StackPane implements GameModelListener {
 	}
 
 	@Override
-	public void gameStateChanged() {
-		buildLayout();
+	public void gameStateChanged(GameModelEvent pEvent) {
+		if (pEvent.affects(aIndex)) {
+			updateLayout();
+		}
 	}
 }
\ No newline at end of file
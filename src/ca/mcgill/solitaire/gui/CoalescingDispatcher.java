@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import ca.mcgill.solitaire.model.GameModelEvent;
+import ca.mcgill.solitaire.model.GameModelListener;
+
+/**
+ * Relays the events of the game model to the views, merging all the events
+ * received before the views get to update into a single event. The first
+ * event received schedules the dispatch, and the following ones are merged
+ * into it until it runs. In the application, dispatches are scheduled with
+ * Platform.runLater, so all the changes made while handling one user gesture
+ * are shown with a single update of each affected view.
+ */
+final class CoalescingDispatcher implements GameModelListener {
+	private final Consumer<Runnable> aScheduler;
+	private final List<GameModelListener> aListeners = new ArrayList<>();
+	private GameModelEvent aPending; // Null if no dispatch is scheduled
+
+	/**
+	 * @param pScheduler Runs the dispatch of the pending event at a later
+	 *     time, on the thread where the listeners must be notified.
+	 * @pre pScheduler != null
+	 */
+	CoalescingDispatcher(Consumer<Runnable> pScheduler) {
+		assert pScheduler != null;
+		aScheduler = pScheduler;
+	}
+
+	/**
+	 * Registers a listener to notify of the merged events.
+	 * 
+	 * @param pListener A listener to register.
+	 * @pre pListener != null
+	 */
+	void addListener(GameModelListener pListener) {
+		assert pListener != null;
+		aListeners.add(pListener);
+	}
+
+	@Override
+	public void gameStateChanged(GameModelEvent pEvent) {
+		if (aPending == null) {
+			aPending = pEvent;
+			aScheduler.accept(this::dispatch);
+		}
+		else {
+			aPending = aPending.merge(pEvent);
+		}
+	}
+
+	private void dispatch() {
+		GameModelEvent event = aPending;
+		aPending = null;
+		for (GameModelListener listener : aListeners) {
+			listener.gameStateChanged(event);
+		}
+	}
+}
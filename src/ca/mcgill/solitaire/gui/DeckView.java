@@ -21,7 +21,9 @@
 package ca.mcgill.solitaire.gui;
 
 import ca.mcgill.solitaire.model.GameModel;
+import ca.mcgill.solitaire.model.GameModelEvent;
 import ca.mcgill.solitaire.model.GameModelListener;
+import ca.mcgill.solitaire.model.OtherLocation;
 import javafx.event.EventHandler;
 import javafx.geometry.VPos;
 import javafx.scene.canvas.Canvas;
@@ -46,10 +48,10 @@ class DeckView extends HBox implements GameModelListener {
 
 	private final GameModel aModel;
 
-	DeckView(GameModel pModel) {
+	DeckView(GameModel pModel, CoalescingDispatcher pDispatcher) {
 		aModel = pModel;
 		final Button button = new Button();
-		button.setGraphic(new ImageView(CardImages.imageForBackOfCard()));
+		button.setGraphic(createBackOfCardView());
 		button.setStyle(BUTTON_STYLE_NORMAL);
 
 		button.setOnMousePressed(new EventHandler<MouseEvent>() {
@@ -73,12 +75,18 @@ class DeckView extends HBox implements GameModelListener {
 		});
 
 		getChildren().add(button);
-		aModel.addListener(this);
+		pDispatcher.addListener(this);
+	}
+
+	private static ImageView createBackOfCardView() {
+		ImageView view = new ImageView(CardImages.imageForBackOfCard());
+		view.setViewport(CardImages.viewportForBackOfCard());
+		return view;
 	}
 
 	private Canvas createNewGameImage() {
-		double width = CardImages.imageForBackOfCard().getWidth();
-		double height = CardImages.imageForBackOfCard().getHeight();
+		double width = CardImages.viewportForBackOfCard().getWidth();
+		double height = CardImages.viewportForBackOfCard().getHeight();
 		Canvas canvas = new Canvas(width, height);
 		GraphicsContext context = canvas.getGraphicsContext2D();
 
@@ -104,12 +112,16 @@ class DeckView extends HBox implements GameModelListener {
 	}
 
 	@Override
-	public void gameStateChanged() {
+	public void gameStateChanged(GameModelEvent pEvent) {
+		// Once the deck is empty, the image also depends on whether the game is completed
+		if (!pEvent.affects(OtherLocation.DECK) && !aModel.isDeckEmpty()) {
+			return;
+		}
 		if (aModel.isDeckEmpty()) {
 			((Button) getChildren().get(0)).setGraphic(createNewGameImage());
 		}
 		else {
-			((Button) getChildren().get(0)).setGraphic(new ImageView(CardImages.imageForBackOfCard()));
+			((Button) getChildren().get(0)).setGraphic(createBackOfCardView());
 		}
 	}
 
@@ -22,7 +22,9 @@ package ca.mcgill.solitaire.gui;
 
 import ca.mcgill.solitaire.cards.Card;
 import ca.mcgill.solitaire.model.GameModel;
+import ca.mcgill.solitaire.model.GameModelEvent;
 import ca.mcgill.solitaire.model.GameModelListener;
+import ca.mcgill.solitaire.model.OtherLocation;
 import javafx.geometry.Insets;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
@@ -36,19 +38,23 @@ class DiscardPileView extends HBox implements GameModelListener {
 	private CardDragHandler aDragHandler;
 	private final GameModel aModel;
 
-	DiscardPileView(GameModel pModel) {
+	DiscardPileView(GameModel pModel, CoalescingDispatcher pDispatcher) {
 		aModel = pModel;
 		setPadding(new Insets(PADDING));
 		final ImageView image = new ImageView(CardImages.imageForBackOfCard());
+		image.setViewport(CardImages.viewportForBackOfCard());
 		image.setVisible(false);
 		getChildren().add(image);
 		aDragHandler = new CardDragHandler(image);
 		image.setOnDragDetected(aDragHandler);
-		aModel.addListener(this);
+		pDispatcher.addListener(this);
 	}
 
 	@Override
-	public void gameStateChanged() {
+	public void gameStateChanged(GameModelEvent pEvent) {
+		if (!pEvent.affects(OtherLocation.DISCARD_PILE)) {
+			return;
+		}
 		if (aModel.isDiscardPileEmpty()) {
 			getChildren().get(0).setVisible(false);
 		}
@@ -57,6 +63,7 @@ class DiscardPileView extends HBox implements GameModelListener {
 			Card topCard = aModel.peekDiscardPile();
 			ImageView image = (ImageView) getChildren().get(0);
 			image.setImage(CardImages.imageFor(topCard));
+			image.setViewport(CardImages.viewportFor(topCard));
 			aDragHandler.setCard(topCard);
 		}
 	}
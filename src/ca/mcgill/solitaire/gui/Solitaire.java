@@ -25,6 +25,7 @@ import ca.mcgill.solitaire.model.FoundationPile;
 import ca.mcgill.solitaire.model.GameModel;
 import ca.mcgill.solitaire.model.TableauPile;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
@@ -56,6 +57,7 @@ public class Solitaire extends Application {
 	 * @param pArgs This program takes no argument.
 	 */
 	public static void main(String[] pArgs) {
+		CardImages.preload();
 		launch(pArgs);
 	}
 
@@ -70,24 +72,36 @@ public class Solitaire extends Application {
 		root.setPadding(new Insets(MARGIN_OUTER));
 
 		final GameModel model = new GameModel(new GreedyPlayingStrategy());
-		DeckView deckView = new DeckView(model);
-		DiscardPileView discardPileView = new DiscardPileView(model);
+		CoalescingDispatcher dispatcher = new CoalescingDispatcher(Platform::runLater);
+		model.addListener(dispatcher);
+		DeckView deckView = new DeckView(model, dispatcher);
+		DiscardPileView discardPileView = new DiscardPileView(model, dispatcher);
 
 		root.add(deckView, 0, 0);
 		root.add(discardPileView, 1, 0);
+		root.add(new WinProbabilityView(model, dispatcher), 2, 0);
 
 		for (FoundationPile index : FoundationPile.values()) {
-			root.add(new SuitStack(model, index), 3 + index.ordinal(), 0);
+			root.add(new SuitStack(model, dispatcher, index), 3 + index.ordinal(), 0);
 		}
 
 		for (TableauPile index : TableauPile.values()) {
-			root.add(new CardPileView(model, index), index.ordinal(), 1);
+			root.add(new CardPileView(model, dispatcher, index), index.ordinal(), 1);
 		}
 
+		final AutoPlayer autoPlayer = new AutoPlayer(model, GreedyPlayingStrategy::new);
 		root.setOnKeyTyped(new EventHandler<KeyEvent>() {
 			@Override
 			public void handle(final KeyEvent pEvent) {
-				if (pEvent.getCharacter().equals("\r")) {
+				if (pEvent.getCharacter().equals(" ")) {
+					if (autoPlayer.isPlaying()) {
+						autoPlayer.stop();
+					}
+					else {
+						autoPlayer.start();
+					}
+				}
+				else if (pEvent.getCharacter().equals("\r")) {
 					model.tryToAutoPlay();
 				}
 				else if (pEvent.getCharacter().equals("\b")) {
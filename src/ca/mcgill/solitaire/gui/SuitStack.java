@@ -25,6 +25,7 @@ import ca.mcgill.solitaire.cards.CardSerializer;
 import ca.mcgill.solitaire.cards.CardStack;
 import ca.mcgill.solitaire.model.FoundationPile;
 import ca.mcgill.solitaire.model.GameModel;
+import ca.mcgill.solitaire.model.GameModelEvent;
 import ca.mcgill.solitaire.model.GameModelListener;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
@@ -38,7 +39,7 @@ import javafx.scene.layout.StackPane;
  * Component that shows a stack of cards in which a completed suit is
  * accumulated.
  */
-public class SuitStack extends StackPane implements GameModelListener {
+class SuitStack extends StackPane implements GameModelListener {
 	private static final int PADDING = 5;
 
 	private static final String BORDER_STYLE = """
@@ -60,12 +61,13 @@ public class SuitStack extends StackPane implements GameModelListener {
 	private FoundationPile aIndex;
 	private final GameModel aModel;
 
-	SuitStack(GameModel pModel, FoundationPile pIndex) {
+	SuitStack(GameModel pModel, CoalescingDispatcher pDispatcher, FoundationPile pIndex) {
 		aModel = pModel;
 		aIndex = pIndex;
 		setPadding(new Insets(PADDING));
 		setStyle(BORDER_STYLE);
 		final ImageView image = new ImageView(CardImages.imageForBackOfCard());
+		image.setViewport(CardImages.viewportForBackOfCard());
 		image.setVisible(false);
 		getChildren().add(image);
 		aDragHandler = new CardDragHandler(image);
@@ -74,11 +76,14 @@ public class SuitStack extends StackPane implements GameModelListener {
 		setOnDragEntered(createOnDragEnteredHandler());
 		setOnDragExited(createOnDragExitedHandler());
 		setOnDragDropped(createOnDragDroppedHandler());
-		aModel.addListener(this);
+		pDispatcher.addListener(this);
 	}
 
 	@Override
-	public void gameStateChanged() {
+	public void gameStateChanged(GameModelEvent pEvent) {
+		if (!pEvent.affects(aIndex)) {
+			return;
+		}
 		if (aModel.isFoundationPileEmpty(aIndex)) {
 			getChildren().get(0).setVisible(false);
 		}
@@ -87,6 +92,7 @@ public class SuitStack extends StackPane implements GameModelListener {
 			Card topCard = aModel.peekSuitStack(aIndex);
 			ImageView image = (ImageView) getChildren().get(0);
 			image.setImage(CardImages.imageFor(topCard));
+			image.setViewport(CardImages.viewportFor(topCard));
 			aDragHandler.setCard(topCard);
 		}
 	}
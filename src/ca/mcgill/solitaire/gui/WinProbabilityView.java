@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.gui;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ca.mcgill.solitaire.auto.WinProbabilityEstimator;
+import ca.mcgill.solitaire.model.GameModel;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Shows the chance that the current game can still be won, as estimated by a
+ * WinProbabilityEstimator on background threads. The estimate is shown as soon
+ * as the first sample is solved and refined as more are, and the estimation
+ * starts over whenever the game changes. While some samples could not be
+ * decided within the node limit, the estimate is a range, and their number is
+ * shown under it.
+ */
+class WinProbabilityView extends Label {
+	private static final int NUMBER_OF_SAMPLES = 100;
+	private static final long NODE_LIMIT = 20_000;
+	private static final int TO_PERCENT = 100;
+
+	private final WinProbabilityEstimator aEstimator;
+
+	WinProbabilityView(GameModel pModel, CoalescingDispatcher pDispatcher) {
+		int numberOfTasks = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfTasks, runnable -> {
+			Thread thread = new Thread(runnable, "WinProbabilityEstimator");
+			thread.setDaemon(true);
+			return thread;
+		});
+		setTextFill(Color.WHITE);
+		setTextAlignment(TextAlignment.CENTER);
+		setWrapText(true);
+		setPrefWidth(CardImages.viewportForBackOfCard().getWidth());
+		aEstimator = new WinProbabilityEstimator(pModel, executor, numberOfTasks, NUMBER_OF_SAMPLES, NODE_LIMIT,
+				estimate -> Platform.runLater(() -> show(estimate)));
+		pDispatcher.addListener(event -> {
+			setText("");
+			aEstimator.start();
+		});
+		aEstimator.start();
+	}
+
+	/*
+	 * Estimates are shown on the application thread, possibly after a newer
+	 * estimate or a new estimation was started, in which case they are stale.
+	 */
+	private void show(WinProbabilityEstimator.Estimate pEstimate) {
+		if (pEstimate != aEstimator.getEstimate()) {
+			return;
+		}
+		if (pEstimate.getUndecided() == 0) {
+			setText(String.format("Win chance%n%.0f%%%n(%.0f-%.0f%%)", pEstimate.getMinimumProbability() * TO_PERCENT,
+					pEstimate.getLowerBound() * TO_PERCENT, pEstimate.getUpperBound() * TO_PERCENT));
+			return;
+		}
+		setText(String.format("Win chance%n%.0f-%.0f%%%n(%.0f-%.0f%%)%n%d undecided",
+				pEstimate.getMinimumProbability() * TO_PERCENT, pEstimate.getMaximumProbability() * TO_PERCENT,
+				pEstimate.getLowerBound() * TO_PERCENT, pEstimate.getUpperBound() * TO_PERCENT, pEstimate.getUndecided()));
+	}
+}
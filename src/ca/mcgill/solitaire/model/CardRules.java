@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.model;
+
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.cards.Rank;
+
+/**
+ * Lookup tables for the relations between cards on which the rules of the
+ * game depend, computed once from the ranks and suits of the cards. Every
+ * query is a single array access, so that rule checks remain cheap in the
+ * inner loops of auto-play and of the solver. Cards can be designated either
+ * by their Card object or by their ordinal.
+ */
+public final class CardRules {
+	private static final int NO_CARD = -1;
+
+	/*
+	 * Bit t of STACKS_ON[c] is set if card c can be placed on card t in the
+	 * tableau, and bit c of STACKABLE_ON[t] is then set as well.
+	 */
+	private static final long[] STACKS_ON = new long[Card.NUMBER_OF_CARDS];
+	private static final long[] STACKABLE_ON = new long[Card.NUMBER_OF_CARDS];
+	private static final int[] NEXT_IN_SUIT = new int[Card.NUMBER_OF_CARDS];
+
+	static {
+		for (int card = 0; card < Card.NUMBER_OF_CARDS; card++) {
+			Card lower = Card.get(card);
+			for (int target = 0; target < Card.NUMBER_OF_CARDS; target++) {
+				Card upper = Card.get(target);
+				if (lower.rank().ordinal() == upper.rank().ordinal() - 1 && !lower.suit().sameColorAs(upper.suit())) {
+					STACKS_ON[card] |= 1L << target;
+					STACKABLE_ON[target] |= 1L << card;
+				}
+			}
+			NEXT_IN_SUIT[card] = NO_CARD;
+			if (lower.rank() != Rank.KING) {
+				NEXT_IN_SUIT[card] = Card.get(Rank.values()[lower.rank().ordinal() + 1], lower.suit()).ordinal();
+			}
+		}
+	}
+
+	private CardRules() {}
+
+	/**
+	 * @param pCard The ordinal of a card.
+	 * @param pTarget The ordinal of another card.
+	 * @return True if pCard can be placed on pTarget in the tableau, that is,
+	 *     if it is one rank lower and of the opposite color.
+	 */
+	public static boolean canStackOn(int pCard, int pTarget) {
+		return (STACKS_ON[pCard] & 1L << pTarget) != 0;
+	}
+
+	/**
+	 * @param pCard A card.
+	 * @param pTarget Another card.
+	 * @return True if pCard can be placed on pTarget in the tableau, that is,
+	 *     if it is one rank lower and of the opposite color.
+	 * @pre pCard != null && pTarget != null
+	 */
+	public static boolean canStackOn(Card pCard, Card pTarget) {
+		assert pCard != null && pTarget != null;
+		return canStackOn(pCard.ordinal(), pTarget.ordinal());
+	}
+
+	/**
+	 * @param pTarget The ordinal of a card.
+	 * @return The set of the cards that can be placed on pTarget in the
+	 *     tableau, as a bit set where bit c stands for the card of ordinal c.
+	 */
+	public static long getStackableOn(int pTarget) {
+		return STACKABLE_ON[pTarget];
+	}
+
+	/**
+	 * @param pCard The ordinal of a card.
+	 * @return The ordinal of the card that goes on top of pCard in a
+	 *     foundation, that is, the card of the same suit and of the next rank,
+	 *     or -1 if pCard is a King.
+	 */
+	public static int getNextInSuit(int pCard) {
+		return NEXT_IN_SUIT[pCard];
+	}
+
+	/**
+	 * @param pCard A card.
+	 * @param pTop The card on top of a foundation.
+	 * @return True if pCard goes on top of pTop in a foundation.
+	 * @pre pCard != null && pTop != null
+	 */
+	public static boolean isNextInSuit(Card pCard, Card pTop) {
+		assert pCard != null && pTop != null;
+		return NEXT_IN_SUIT[pTop.ordinal()] == pCard.ordinal();
+	}
+}
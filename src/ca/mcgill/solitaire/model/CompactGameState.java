@@ -0,0 +1,960 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.model;
+
+import java.util.random.RandomGenerator;
+
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.cards.CardStack;
+import ca.mcgill.solitaire.cards.Deck;
+import ca.mcgill.solitaire.cards.Rank;
+import ca.mcgill.solitaire.cards.Suit;
+
+/**
+ * A compact, self-contained representation of the complete state of a game,
+ * designed for headless play, look-ahead and simulation. Unlike GameModel, this
+ * class does not notify listeners and its primitive interface does not
+ * allocate any object.
+ * 
+ * Cards are represented by their ordinal (see Card.ordinal()), and locations
+ * by an index: the four foundation piles are 0 to 3, the seven tableau piles
+ * are 4 to 10, followed by DISCARD and DECK. The deck, discard pile and each
+ * tableau pile are arrays of card ordinals stored from bottom to top, the
+ * visibility of all cards is a 52-bit set, and the four foundation piles are
+ * packed in a single int where each pile takes six bits that store the
+ * ordinal of its top card plus one, or zero if the pile is empty. Because
+ * foundations are built up by suit from the Ace, the top card is enough to
+ * know the entire pile.
+ * 
+ * The state also keeps an undo log of the moves performed on it, so that
+ * any number of moves can be retracted in reverse order.
+ * 
+ * All the legal moves of the current state can be enumerated with
+ * generateMoves, which encodes each move as an int (see encodeMove) into an
+ * array supplied by the caller. The moves are found by checking, for each
+ * destination, the handful of cards that can fit on it, using the location
+ * index and visibility set that every move and undo keeps up to date, so the
+ * cost of generating moves does not depend on the size of the piles.
+ * 
+ * Finally, the state maintains a 64-bit Zobrist hash of its position (see
+ * getHash), updated in constant time whenever a card changes location or
+ * visibility.
+ */
+public final class CompactGameState implements GameModelView {
+	/**
+	 * The number of different locations where a card can be found.
+	 */
+	public static final int NUMBER_OF_LOCATIONS = 13;
+
+	/**
+	 * The location index of the discard pile.
+	 */
+	public static final int DISCARD = 11;
+
+	/**
+	 * The location index of the deck.
+	 */
+	public static final int DECK = 12;
+
+	/**
+	 * The maximum number of legal moves in any state, and thus the minimum
+	 * size of the buffer passed to generateMoves. Each non-empty tableau pile
+	 * accepts at most two cards and each empty one at most four Kings, each
+	 * foundation pile accepts at most one card, or four Aces if it is empty,
+	 * and a card can be drawn from the deck.
+	 */
+	public static final int MAX_MOVES = (TableauPile.values().length + FoundationPile.values().length) *
+			Suit.values().length + 1;
+
+	private static final int NUMBER_OF_CARDS = Card.NUMBER_OF_CARDS;
+	private static final int NUMBER_OF_RANKS = Rank.values().length;
+	private static final int NUMBER_OF_FOUNDATIONS = FoundationPile.values().length;
+	private static final int NUMBER_OF_PILES = TableauPile.values().length;
+	private static final int NUMBER_OF_SUITS = Suit.values().length;
+	private static final int KING = Rank.KING.ordinal();
+
+	/*
+	 * Maximum height of a tableau pile: six face-down cards under a complete
+	 * sequence from King to Ace.
+	 */
+	private static final int PILE_CAPACITY = NUMBER_OF_PILES - 1 + NUMBER_OF_RANKS;
+
+	private static final int FOUNDATION_BITS = 6;
+	private static final int FOUNDATION_MASK = (1 << FOUNDATION_BITS) - 1;
+
+	/*
+	 * Layout of an entry in the undo log.
+	 */
+	private static final int CARD_MASK = 0x3F;
+	private static final int LOCATION_MASK = 0xF;
+	private static final int SOURCE_SHIFT = 6;
+	private static final int DESTINATION_SHIFT = 10;
+	private static final int REVEAL_FLAG = 1 << 14;
+	private static final int INITIAL_LOG_CAPACITY = 128;
+
+	/*
+	 * Layout of an encoded move.
+	 */
+	private static final int MOVE_DESTINATION_SHIFT = 6;
+
+	private static final Move NULL_MOVE = new Move() {
+		@Override
+		public void perform() {} // Does nothing on purpose
+
+		@Override
+		public boolean isNull() {
+			return true;
+		}
+
+		@Override
+		public void undo() {} // Does nothing on purpose
+	};
+
+	private final Move aDiscardMove = new Move() {
+		@Override
+		public void perform() {
+			draw();
+		}
+
+		@Override
+		public void undo() {
+			undoLast();
+		}
+	};
+
+	private final byte[] aDeck = new byte[NUMBER_OF_CARDS];
+	private final byte[] aDiscard = new byte[NUMBER_OF_CARDS];
+	private final byte[] aPiles = new byte[NUMBER_OF_PILES * PILE_CAPACITY];
+	private final int[] aPileSizes = new int[NUMBER_OF_PILES];
+	private final byte[] aLocations = new byte[NUMBER_OF_CARDS];
+	private final byte[] aPositions = new byte[NUMBER_OF_CARDS];
+	private int aDeckSize;
+	private int aDiscardSize;
+	private long aVisible;
+	private int aFoundations;
+	private long aHash = Zobrist.EMPTY;
+	private int[] aUndoLog = new int[INITIAL_LOG_CAPACITY];
+	private int aUndoLogSize;
+	private PileView[] aPileViews; // Created on demand
+
+	/**
+	 * Creates a new game by dealing the cards in pDeck, in the same way as
+	 * GameModel does: the seven piles of the tableau receive one to seven
+	 * cards, of which only the top card is visible, and the remaining cards
+	 * stay in the deck. All cards are drawn from pDeck.
+	 * 
+	 * @param pDeck The deck to deal from.
+	 * @pre pDeck != null && pDeck.size() == 52
+	 */
+	public CompactGameState(Deck pDeck) {
+		assert pDeck != null && pDeck.size() == NUMBER_OF_CARDS;
+		for (int pile = 0; pile < NUMBER_OF_PILES; pile++) {
+			for (int i = 0; i <= pile; i++) {
+				addToTableau(pile, pDeck.draw().ordinal(), i == pile);
+			}
+		}
+		byte[] remaining = new byte[pDeck.size()];
+		for (int i = remaining.length - 1; i >= 0; i--) {
+			remaining[i] = (byte) pDeck.draw().ordinal();
+		}
+		for (byte card : remaining) {
+			addToDeck(card);
+		}
+	}
+
+	/**
+	 * Creates an independent copy of pState, including its undo log.
+	 * 
+	 * @param pState The state to copy.
+	 * @pre pState != null
+	 */
+	public CompactGameState(CompactGameState pState) {
+		assert pState != null;
+		System.arraycopy(pState.aDeck, 0, aDeck, 0, NUMBER_OF_CARDS);
+		System.arraycopy(pState.aDiscard, 0, aDiscard, 0, NUMBER_OF_CARDS);
+		System.arraycopy(pState.aPiles, 0, aPiles, 0, aPiles.length);
+		System.arraycopy(pState.aPileSizes, 0, aPileSizes, 0, NUMBER_OF_PILES);
+		System.arraycopy(pState.aLocations, 0, aLocations, 0, NUMBER_OF_CARDS);
+		System.arraycopy(pState.aPositions, 0, aPositions, 0, NUMBER_OF_CARDS);
+		aDeckSize = pState.aDeckSize;
+		aDiscardSize = pState.aDiscardSize;
+		aVisible = pState.aVisible;
+		aFoundations = pState.aFoundations;
+		aHash = pState.aHash;
+		aUndoLog = pState.aUndoLog.clone();
+		aUndoLogSize = pState.aUndoLogSize;
+	}
+
+	/*
+	 * Creates an empty state, to be filled by the package-private loading
+	 * methods.
+	 */
+	CompactGameState() {}
+
+	/**
+	 * @param pLocation A location in the game.
+	 * @return The index that represents pLocation in this class.
+	 * @pre pLocation != null
+	 */
+	public static int indexOf(Location pLocation) {
+		assert pLocation != null;
+		if (pLocation instanceof FoundationPile) {
+			return ((FoundationPile) pLocation).ordinal();
+		}
+		else if (pLocation instanceof TableauPile) {
+			return NUMBER_OF_FOUNDATIONS + ((TableauPile) pLocation).ordinal();
+		}
+		else if (pLocation == OtherLocation.DECK) {
+			return DECK;
+		}
+		else {
+			assert pLocation == OtherLocation.DISCARD_PILE;
+			return DISCARD;
+		}
+	}
+
+	/**
+	 * @param pIndex A location index.
+	 * @return The location represented by pIndex.
+	 * @pre pIndex >= 0 && pIndex < NUMBER_OF_LOCATIONS
+	 */
+	public static Location locationOf(int pIndex) {
+		assert pIndex >= 0 && pIndex < NUMBER_OF_LOCATIONS;
+		if (isFoundation(pIndex)) {
+			return FoundationPile.values()[pIndex];
+		}
+		else if (isTableau(pIndex)) {
+			return TableauPile.values()[pIndex - NUMBER_OF_FOUNDATIONS];
+		}
+		else if (pIndex == DECK) {
+			return OtherLocation.DECK;
+		}
+		else {
+			return OtherLocation.DISCARD_PILE;
+		}
+	}
+
+	/**
+	 * Encodes the move of pCard to pDestination as an int. Drawing a card from
+	 * the deck is encoded as moving the top card of the deck to DISCARD.
+	 * 
+	 * @param pCard A card ordinal.
+	 * @param pDestination A foundation, tableau or DISCARD location index.
+	 * @return The encoded move.
+	 */
+	public static int encodeMove(int pCard, int pDestination) {
+		return pCard | pDestination << MOVE_DESTINATION_SHIFT;
+	}
+
+	/**
+	 * @param pMove An encoded move.
+	 * @return The ordinal of the card moved by pMove.
+	 */
+	public static int moveCard(int pMove) {
+		return pMove & CARD_MASK;
+	}
+
+	/**
+	 * @param pMove An encoded move.
+	 * @return The location index of the destination of pMove.
+	 */
+	public static int moveDestination(int pMove) {
+		return pMove >>> MOVE_DESTINATION_SHIFT;
+	}
+
+	/**
+	 * @param pIndex A location index.
+	 * @return True if pIndex is the index of a foundation pile.
+	 */
+	public static boolean isFoundation(int pIndex) {
+		return pIndex >= 0 && pIndex < NUMBER_OF_FOUNDATIONS;
+	}
+
+	/**
+	 * @param pIndex A location index.
+	 * @return True if pIndex is the index of a tableau pile.
+	 */
+	public static boolean isTableau(int pIndex) {
+		return pIndex >= NUMBER_OF_FOUNDATIONS && pIndex < NUMBER_OF_FOUNDATIONS + NUMBER_OF_PILES;
+	}
+
+	void addToDeck(int pCard) {
+		relocate(pCard, DECK);
+		aPositions[pCard] = (byte) aDeckSize;
+		aDeck[aDeckSize++] = (byte) pCard;
+	}
+
+	void addToDiscard(int pCard) {
+		relocate(pCard, DISCARD);
+		aPositions[pCard] = (byte) aDiscardSize;
+		aDiscard[aDiscardSize++] = (byte) pCard;
+	}
+
+	void setFoundationTop(int pFoundation, int pCard) {
+		for (int card = pCard - rank(pCard); card <= pCard; card++) {
+			relocate(card, pFoundation);
+			aPositions[card] = (byte) rank(card);
+		}
+		setFoundationCode(pFoundation, pCard + 1);
+	}
+
+	void addToTableau(int pPile, int pCard, boolean pVisible) {
+		assert aPileSizes[pPile] < PILE_CAPACITY;
+		int size = aPileSizes[pPile];
+		aPiles[pPile * PILE_CAPACITY + size] = (byte) pCard;
+		aPileSizes[pPile] = size + 1;
+		relocate(pCard, NUMBER_OF_FOUNDATIONS + pPile);
+		aPositions[pCard] = (byte) size;
+		setVisible(pCard, pVisible);
+	}
+
+	private void relocate(int pCard, int pLocation) {
+		aHash ^= Zobrist.location(pCard, aLocations[pCard]) ^ Zobrist.location(pCard, pLocation);
+		aLocations[pCard] = (byte) pLocation;
+	}
+
+	private void setVisible(int pCard, boolean pVisible) {
+		if (isVisible(pCard) != pVisible) {
+			aVisible ^= 1L << pCard;
+			aHash ^= Zobrist.visible(pCard);
+		}
+	}
+
+	/**
+	 * @param pCard A card ordinal.
+	 * @return The index of the location where pCard currently is.
+	 */
+	public int getLocation(int pCard) {
+		return aLocations[pCard];
+	}
+
+	/**
+	 * @param pCard A card ordinal.
+	 * @return The position of pCard in its location, 0 being the bottom of the
+	 *     pile. For the deck, the top card has the highest position.
+	 */
+	public int getPosition(int pCard) {
+		return aPositions[pCard];
+	}
+
+	/**
+	 * @param pCard A card ordinal.
+	 * @return True if pCard is in the tableau and face up.
+	 */
+	public boolean isVisible(int pCard) {
+		return (aVisible & 1L << pCard) != 0;
+	}
+
+	/**
+	 * @return The set of cards visible in the tableau, as a bit set indexed by
+	 *     card ordinal.
+	 */
+	public long getVisibleCards() {
+		return aVisible;
+	}
+
+	/**
+	 * Returns the Zobrist hash of this state. Two states obtained from the
+	 * same deal that have all their cards at the same locations, with the same
+	 * cards face up, have the same hash, regardless of the moves that led to
+	 * them. Hashes of states obtained from different deals are not comparable.
+	 * 
+	 * @return A 64-bit hash of the position.
+	 */
+	@Override
+	public long getHash() {
+		return aHash;
+	}
+
+	/**
+	 * @return The number of cards in the deck.
+	 */
+	public int getDeckSize() {
+		return aDeckSize;
+	}
+
+	/**
+	 * @return The ordinal of the card on top of the deck, which is the next
+	 *     card to be drawn.
+	 * @pre getDeckSize() > 0
+	 */
+	public int getDeckTop() {
+		assert aDeckSize > 0;
+		return aDeck[aDeckSize - 1];
+	}
+
+	/**
+	 * @return The number of cards in the discard pile.
+	 */
+	public int getDiscardSize() {
+		return aDiscardSize;
+	}
+
+	/**
+	 * @return The ordinal of the card on top of the discard pile.
+	 * @pre getDiscardSize() > 0
+	 */
+	public int getDiscardTop() {
+		assert aDiscardSize > 0;
+		return aDiscard[aDiscardSize - 1];
+	}
+
+	/**
+	 * @param pPile The index of a tableau pile, between 0 and 6.
+	 * @return The number of cards in the pile.
+	 */
+	public int getPileSize(int pPile) {
+		return aPileSizes[pPile];
+	}
+
+	/**
+	 * @param pPile The index of a tableau pile, between 0 and 6.
+	 * @param pPosition The position of the card in the pile, 0 being the
+	 *     bottom.
+	 * @return The ordinal of the card at pPosition in pile pPile.
+	 * @pre pPosition >= 0 && pPosition < getPileSize(pPile)
+	 */
+	public int getPileCard(int pPile, int pPosition) {
+		assert pPosition >= 0 && pPosition < aPileSizes[pPile];
+		return aPiles[pPile * PILE_CAPACITY + pPosition];
+	}
+
+	/**
+	 * @param pFoundation The index of a foundation pile, between 0 and 3.
+	 * @return The ordinal of the card on top of the pile, or -1 if the pile is
+	 *     empty.
+	 */
+	public int getFoundationTop(int pFoundation) {
+		return foundationCode(pFoundation) - 1;
+	}
+
+	/**
+	 * @return The number of cards in the foundations.
+	 */
+	public int getScore() {
+		int score = 0;
+		for (int foundation = 0; foundation < NUMBER_OF_FOUNDATIONS; foundation++) {
+			int code = foundationCode(foundation);
+			if (code != 0) {
+				score += rank(code - 1) + 1;
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * @return True if all the cards are in the foundations.
+	 */
+	public boolean isCompleted() {
+		return getScore() == NUMBER_OF_CARDS;
+	}
+
+	/**
+	 * @param pCard A card ordinal.
+	 * @return True if pCard can be picked up: it is on top of the discard
+	 *     pile, on top of a foundation pile, or visible in the tableau.
+	 */
+	public boolean isMovable(int pCard) {
+		int location = aLocations[pCard];
+		if (location == DISCARD) {
+			return aDiscard[aDiscardSize - 1] == pCard;
+		}
+		else if (isFoundation(location)) {
+			return getFoundationTop(location) == pCard;
+		}
+		else {
+			return location != DECK && isVisible(pCard);
+		}
+	}
+
+	/**
+	 * Determines whether pCard can be placed on pDestination according to the
+	 * rules of the game, irrespective of where pCard currently is.
+	 * 
+	 * @param pCard A card ordinal.
+	 * @param pDestination A foundation or tableau location index.
+	 * @return True if pCard fits on top of pDestination.
+	 */
+	public boolean fits(int pCard, int pDestination) {
+		if (isFoundation(pDestination)) {
+			int top = getFoundationTop(pDestination);
+			if (top < 0) {
+				return rank(pCard) == 0;
+			}
+			return pCard == CardRules.getNextInSuit(top);
+		}
+		else if (isTableau(pDestination)) {
+			int pile = pDestination - NUMBER_OF_FOUNDATIONS;
+			if (aPileSizes[pile] == 0) {
+				return rank(pCard) == KING;
+			}
+			int top = aPiles[pile * PILE_CAPACITY + aPileSizes[pile] - 1];
+			return CardRules.canStackOn(pCard, top);
+		}
+		return false;
+	}
+
+	/**
+	 * Determines whether moving pCard to pDestination is a legal move in the
+	 * current state. In addition to the rules checked by fits, the card must
+	 * be movable, must not already be at pDestination, and only single cards
+	 * may be moved to a foundation.
+	 * 
+	 * @param pCard A card ordinal.
+	 * @param pDestination A foundation or tableau location index.
+	 * @return True if the move is legal.
+	 */
+	public boolean canMove(int pCard, int pDestination) {
+		int source = aLocations[pCard];
+		if (source == pDestination || !isMovable(pCard) || !fits(pCard, pDestination)) {
+			return false;
+		}
+		return !isFoundation(pDestination) || !isTableau(source) ||
+				aPositions[pCard] == aPileSizes[source - NUMBER_OF_FOUNDATIONS] - 1;
+	}
+
+	/**
+	 * Moves the top card of the deck to the discard pile.
+	 * 
+	 * @pre getDeckSize() > 0
+	 */
+	public void draw() {
+		assert aDeckSize > 0;
+		int card = aDeck[--aDeckSize];
+		addToDiscard(card);
+		log(card | DECK << SOURCE_SHIFT | DISCARD << DESTINATION_SHIFT);
+	}
+
+	/**
+	 * Moves pCard, and all the cards above it if it is in the tableau, to
+	 * pDestination. If this leaves a face-down card on top of a tableau pile,
+	 * that card is turned face up as part of the same move.
+	 * 
+	 * @param pCard A card ordinal.
+	 * @param pDestination A foundation or tableau location index.
+	 * @pre canMove(pCard, pDestination)
+	 */
+	public void move(int pCard, int pDestination) {
+		assert canMove(pCard, pDestination);
+		int source = aLocations[pCard];
+		transfer(pCard, source, pDestination);
+		int entry = pCard | source << SOURCE_SHIFT | pDestination << DESTINATION_SHIFT;
+		if (isTableau(source)) {
+			int pile = source - NUMBER_OF_FOUNDATIONS;
+			int size = aPileSizes[pile];
+			if (size > 0 && !isVisible(aPiles[pile * PILE_CAPACITY + size - 1])) {
+				setVisible(aPiles[pile * PILE_CAPACITY + size - 1], true);
+				entry |= REVEAL_FLAG;
+			}
+		}
+		log(entry);
+	}
+
+	/**
+	 * Performs an encoded move, as produced by generateMoves.
+	 * 
+	 * @param pMove The encoded move.
+	 * @pre pMove is legal in the current state.
+	 */
+	public void perform(int pMove) {
+		if (moveDestination(pMove) == DISCARD) {
+			assert aDeckSize > 0 && getDeckTop() == moveCard(pMove);
+			draw();
+		}
+		else {
+			move(moveCard(pMove), moveDestination(pMove));
+		}
+	}
+
+	/**
+	 * Writes all the legal moves of the current state in pMoves, starting at
+	 * index 0: first the moves to a foundation pile, then the moves to a
+	 * tableau pile, then drawing a card if the deck is not empty. This method
+	 * does not allocate any object.
+	 * 
+	 * @param pMoves The array to write the encoded moves into.
+	 * @return The number of moves written.
+	 * @pre pMoves != null && pMoves.length >= MAX_MOVES
+	 */
+	public int generateMoves(int[] pMoves) {
+		assert pMoves != null && pMoves.length >= MAX_MOVES;
+		int count = 0;
+		for (int foundation = 0; foundation < NUMBER_OF_FOUNDATIONS; foundation++) {
+			int top = getFoundationTop(foundation);
+			if (top < 0) {
+				count = addMoves(pMoves, count, 0, foundation);
+			}
+			else if (rank(top) != KING) {
+				count = addMove(pMoves, count, top + 1, foundation);
+			}
+		}
+		for (int pile = 0; pile < NUMBER_OF_PILES; pile++) {
+			int size = aPileSizes[pile];
+			if (size == 0) {
+				count = addMoves(pMoves, count, KING, NUMBER_OF_FOUNDATIONS + pile);
+			}
+			else {
+				int rank = rank(aPiles[pile * PILE_CAPACITY + size - 1]);
+				if (rank > 0) {
+					count = addMoves(pMoves, count, rank - 1, NUMBER_OF_FOUNDATIONS + pile);
+				}
+			}
+		}
+		if (aDeckSize > 0) {
+			pMoves[count++] = encodeMove(getDeckTop(), DISCARD);
+		}
+		return count;
+	}
+
+	/*
+	 * Adds the legal moves of the cards of rank pRank, in all suits, to
+	 * pDestination.
+	 */
+	private int addMoves(int[] pMoves, int pCount, int pRank, int pDestination) {
+		int count = pCount;
+		for (int suit = 0; suit < NUMBER_OF_SUITS; suit++) {
+			count = addMove(pMoves, count, suit * NUMBER_OF_RANKS + pRank, pDestination);
+		}
+		return count;
+	}
+
+	private int addMove(int[] pMoves, int pCount, int pCard, int pDestination) {
+		if (!canMove(pCard, pDestination)) {
+			return pCount;
+		}
+		pMoves[pCount] = encodeMove(pCard, pDestination);
+		return pCount + 1;
+	}
+
+	/**
+	 * Shuffles the cards that the player cannot see, that is, the cards in the
+	 * deck and the face-down cards of the tableau, among the positions they
+	 * occupy. The result is one of the states that are consistent with
+	 * everything the player knows, which a strategy that does not cheat can
+	 * sample to evaluate its moves. The moves in the undo log can still be
+	 * undone, but since the state is in effect a different deal, its hash is
+	 * only comparable with the hashes of states derived from it.
+	 * 
+	 * @param pRandom The source of randomness.
+	 * @pre pRandom != null
+	 */
+	public void shuffleHiddenCards(RandomGenerator pRandom) {
+		assert pRandom != null;
+		byte[] hidden = new byte[NUMBER_OF_CARDS];
+		int count = aDeckSize;
+		System.arraycopy(aDeck, 0, hidden, 0, aDeckSize);
+		for (int pile = 0; pile < NUMBER_OF_PILES; pile++) {
+			int faceDown = faceDownCount(pile);
+			System.arraycopy(aPiles, pile * PILE_CAPACITY, hidden, count, faceDown);
+			count += faceDown;
+		}
+		for (int i = count - 1; i > 0; i--) {
+			int other = pRandom.nextInt(i + 1);
+			byte card = hidden[i];
+			hidden[i] = hidden[other];
+			hidden[other] = card;
+		}
+		count = 0;
+		for (int position = 0; position < aDeckSize; position++) {
+			aDeck[position] = hidden[count];
+			place(hidden[count++], DECK, position);
+		}
+		for (int pile = 0; pile < NUMBER_OF_PILES; pile++) {
+			int faceDown = faceDownCount(pile);
+			for (int position = 0; position < faceDown; position++) {
+				aPiles[pile * PILE_CAPACITY + position] = hidden[count];
+				place(hidden[count++], NUMBER_OF_FOUNDATIONS + pile, position);
+			}
+		}
+	}
+
+	/*
+	 * The number of face-down cards at the bottom of pile pPile.
+	 */
+	private int faceDownCount(int pPile) {
+		int count = 0;
+		while (count < aPileSizes[pPile] && !isVisible(aPiles[pPile * PILE_CAPACITY + count])) {
+			count++;
+		}
+		return count;
+	}
+
+	private void place(int pCard, int pLocation, int pPosition) {
+		relocate(pCard, pLocation);
+		aPositions[pCard] = (byte) pPosition;
+	}
+
+	/**
+	 * @return True if there is at least one move to undo.
+	 */
+	public boolean canUndo() {
+		return aUndoLogSize > 0;
+	}
+
+	/**
+	 * @return The number of moves performed and not undone.
+	 */
+	public int getNumberOfMoves() {
+		return aUndoLogSize;
+	}
+
+	/**
+	 * Returns one of the moves performed and not undone, encoded as by
+	 * encodeMove. Replaying these moves in order on the initial state leads
+	 * to the current state.
+	 * 
+	 * @param pIndex The index of the move, 0 being the first move performed.
+	 * @return The encoded move.
+	 * @pre pIndex >= 0 && pIndex < getNumberOfMoves()
+	 */
+	public int getMove(int pIndex) {
+		assert pIndex >= 0 && pIndex < aUndoLogSize;
+		int entry = aUndoLog[pIndex];
+		return encodeMove(entry & CARD_MASK, entry >>> DESTINATION_SHIFT & LOCATION_MASK);
+	}
+
+	/**
+	 * Reverts the effect of the last move performed, including drawing a card
+	 * and turning a card face up.
+	 * 
+	 * @pre canUndo()
+	 */
+	public void undoLast() {
+		assert canUndo();
+		int entry = aUndoLog[--aUndoLogSize];
+		int card = entry & CARD_MASK;
+		int source = entry >>> SOURCE_SHIFT & LOCATION_MASK;
+		int destination = entry >>> DESTINATION_SHIFT & LOCATION_MASK;
+		if (source == DECK) {
+			aDiscardSize--;
+			addToDeck(card);
+			return;
+		}
+		if ((entry & REVEAL_FLAG) != 0) {
+			int pile = source - NUMBER_OF_FOUNDATIONS;
+			setVisible(aPiles[pile * PILE_CAPACITY + aPileSizes[pile] - 1], false);
+		}
+		transfer(card, destination, source);
+	}
+
+	private void log(int pEntry) {
+		if (aUndoLogSize == aUndoLog.length) {
+			int[] log = new int[aUndoLog.length * 2];
+			System.arraycopy(aUndoLog, 0, log, 0, aUndoLogSize);
+			aUndoLog = log;
+		}
+		aUndoLog[aUndoLogSize++] = pEntry;
+	}
+
+	/*
+	 * Moves pCard, and everything on top of it if pSource is a tableau pile,
+	 * from pSource to pDestination, without checking the rules, revealing cards
+	 * or logging.
+	 */
+	private void transfer(int pCard, int pSource, int pDestination) {
+		if (isTableau(pSource)) {
+			int pile = pSource - NUMBER_OF_FOUNDATIONS;
+			int first = pile * PILE_CAPACITY;
+			int position = aPositions[pCard];
+			int size = aPileSizes[pile];
+			aPileSizes[pile] = position;
+			for (int i = position; i < size; i++) {
+				int card = aPiles[first + i];
+				setVisible(card, false);
+				put(card, pDestination);
+			}
+		}
+		else {
+			if (pSource == DISCARD) {
+				aDiscardSize--;
+			}
+			else {
+				assert isFoundation(pSource);
+				int code = 0;
+				if (rank(pCard) != 0) {
+					code = pCard;
+				}
+				setFoundationCode(pSource, code);
+			}
+			put(pCard, pDestination);
+		}
+	}
+
+	private void put(int pCard, int pDestination) {
+		if (isTableau(pDestination)) {
+			addToTableau(pDestination - NUMBER_OF_FOUNDATIONS, pCard, true);
+		}
+		else if (pDestination == DISCARD) {
+			addToDiscard(pCard);
+		}
+		else {
+			relocate(pCard, pDestination);
+			aPositions[pCard] = (byte) rank(pCard);
+			setFoundationCode(pDestination, pCard + 1);
+		}
+	}
+
+	private int foundationCode(int pFoundation) {
+		return aFoundations >>> pFoundation * FOUNDATION_BITS & FOUNDATION_MASK;
+	}
+
+	private void setFoundationCode(int pFoundation, int pCode) {
+		int shift = pFoundation * FOUNDATION_BITS;
+		aFoundations = aFoundations & ~(FOUNDATION_MASK << shift) | pCode << shift;
+	}
+
+	private static int rank(int pCard) {
+		return pCard % NUMBER_OF_RANKS;
+	}
+
+	@Override
+	public boolean isDiscardPileEmpty() {
+		return aDiscardSize == 0;
+	}
+
+	@Override
+	public boolean isDeckEmpty() {
+		return aDeckSize == 0;
+	}
+
+	@Override
+	public boolean isFoundationPileEmpty(FoundationPile pIndex) {
+		return foundationCode(pIndex.ordinal()) == 0;
+	}
+
+	@Override
+	public Card peekDiscardPile() {
+		return Card.get(getDiscardTop());
+	}
+
+	@Override
+	public CardStack getTableauPile(TableauPile pIndex) {
+		CardStack pile = new CardStack();
+		int first = pIndex.ordinal() * PILE_CAPACITY;
+		for (int i = 0; i < aPileSizes[pIndex.ordinal()]; i++) {
+			pile.push(Card.get(aPiles[first + i]));
+		}
+		return pile;
+	}
+
+	@Override
+	public PileView getTableauPileView(TableauPile pIndex) {
+		if (aPileViews == null) {
+			aPileViews = new PileView[NUMBER_OF_PILES];
+			for (int pile = 0; pile < NUMBER_OF_PILES; pile++) {
+				aPileViews[pile] = new View(pile);
+			}
+		}
+		return aPileViews[pIndex.ordinal()];
+	}
+
+	@Override
+	public boolean isVisibleInTableau(Card pCard) {
+		return isTableau(aLocations[pCard.ordinal()]) && isVisible(pCard.ordinal());
+	}
+
+	@Override
+	public boolean isLowestVisibleInTableau(Card pCard) {
+		int card = pCard.ordinal();
+		if (!isVisibleInTableau(pCard)) {
+			return false;
+		}
+		int position = aPositions[card];
+		int pile = aLocations[card] - NUMBER_OF_FOUNDATIONS;
+		return position == 0 || !isVisible(aPiles[pile * PILE_CAPACITY + position - 1]);
+	}
+
+	@Override
+	public boolean isBottomKing(Card pCard) {
+		assert pCard != null && isTableau(aLocations[pCard.ordinal()]);
+		return pCard.rank() == Rank.KING && aPositions[pCard.ordinal()] == 0;
+	}
+
+	@Override
+	public boolean isLegalMove(Card pCard, Location pDestination) {
+		if (pDestination instanceof OtherLocation) {
+			return false;
+		}
+		return fits(pCard.ordinal(), indexOf(pDestination));
+	}
+
+	@Override
+	public CompactGameState snapshot() {
+		return new CompactGameState(this);
+	}
+
+	@Override
+	public Move getNullMove() {
+		return NULL_MOVE;
+	}
+
+	@Override
+	public Move getDiscardMove() {
+		return aDiscardMove;
+	}
+
+	@Override
+	public Move getCardMove(Card pCard, Location pDestination) {
+		int card = pCard.ordinal();
+		int destination = indexOf(pDestination);
+		return new Move() {
+			@Override
+			public void perform() {
+				move(card, destination);
+			}
+
+			@Override
+			public void undo() {
+				undoLast();
+			}
+		};
+	}
+
+	/*
+	 * A live, read-only view of one of the tableau piles.
+	 */
+	private class View implements PileView {
+		private final int aPile;
+
+		View(int pPile) {
+			aPile = pPile;
+		}
+
+		@Override
+		public int size() {
+			return aPileSizes[aPile];
+		}
+
+		@Override
+		public Card get(int pIndex) {
+			return Card.get(getPileCard(aPile, pIndex));
+		}
+
+		@Override
+		public int getFirstVisibleIndex() {
+			int index = aPileSizes[aPile];
+			while (index > 0 && isVisible(aPiles[aPile * PILE_CAPACITY + index - 1])) {
+				index--;
+			}
+			return index;
+		}
+	}
+}
@@ -88,8 +88,7 @@ class Foundations {
 			return pCard.rank() == Rank.ACE;
 		}
 		else {
-			return pCard.suit() == peek(pLocation).suit() && 
-					pCard.rank().ordinal() == peek(pLocation).rank().ordinal() + 1;
+			return CardRules.isNextInSuit(pCard, peek(pLocation));
 		}
 	}
 
@@ -22,7 +22,7 @@ package ca.mcgill.solitaire.model;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
+import java.util.random.RandomGenerator;
 
 import ca.mcgill.solitaire.auto.PlayingStrategy;
 import ca.mcgill.solitaire.cards.Card;
@@ -38,8 +38,35 @@ import ca.mcgill.solitaire.cards.Suit;
  * elements: the deck, the discard pile, the foundations where completed suits
  * are accumulated, and the tableau, which consists of seven piles where cards
  * fan down in sequences of alternating suit colors.
+ * 
+ * The model also maintains the Zobrist hash of the current position, which is
+ * the same as that of an equivalent CompactGameState (see getHash). Every
+ * move updates the hash in constant time when it is performed or undone.
+ * 
+ * The moves performed are recorded for undoing in a log of ints, with the
+ * same layout as that of CompactGameState, rather than as Move objects, so
+ * that long games do not retain one or more objects per move.
+ * 
+ * Changes can be grouped in a batch (see batch), for example to try and
+ * retract moves while looking ahead, in which case the listeners are notified
+ * at most once, when the batch completes.
+ * 
+ * Listeners receive events that describe which locations were affected by a
+ * change. Within a batch, the locations affected by all the changes are merged
+ * into a single event.
  */
 public final class GameModel implements GameModelView {
+	/*
+	 * Layout of an entry in the undo log.
+	 */
+	private static final int CARD_MASK = 0x3F;
+	private static final int LOCATION_MASK = 0xF;
+	private static final int SOURCE_SHIFT = 6;
+	private static final int DESTINATION_SHIFT = 10;
+	private static final int REVEAL_FLAG = 1 << 14;
+	private static final int INITIAL_LOG_CAPACITY = 128;
+	private static final int ALL_LOCATIONS = (1 << CompactGameState.NUMBER_OF_LOCATIONS) - 1;
+
 	private static final Move NULL_MOVE = new Move() {
 		@Override
 		public void perform() {} // Does nothing on purpose
@@ -57,26 +84,34 @@ public final class GameModel implements GameModelView {
 		@Override
 		public void perform() {
 			assert !isDeckEmpty();
-			aDiscard.push(aDeck.draw());
-			aMoves.push(this);
-			notifyListeners();
+			Card card = aDeck.draw();
+			aDiscard.push(card);
+			aHash ^= Zobrist.location(card.ordinal(), CompactGameState.DECK) ^
+					Zobrist.location(card.ordinal(), CompactGameState.DISCARD);
+			int entry = card.ordinal() | CompactGameState.DECK << SOURCE_SHIFT |
+					CompactGameState.DISCARD << DESTINATION_SHIFT;
+			log(entry);
+			notifyListeners(locationsOf(entry));
 		}
 
 		@Override
 		public void undo() {
-			assert !isDiscardPileEmpty();
-			aDeck.push(aDiscard.pop());
-			notifyListeners();
+			assert !aDiscard.isEmpty() && isLastMove(aDiscard.peekTop(), CompactGameState.DECK, CompactGameState.DISCARD);
+			undoLast();
 		}
 	};
 
 	private final Deck aDeck = new Deck();
-	private final Stack<Move> aMoves = new Stack<>();
 	private final CardStack aDiscard = new CardStack();
 	private final Foundations aFoundations = new Foundations();
 	private final Tableau aTableau = new Tableau();
 	private final List<GameModelListener> aListeners = new ArrayList<>();
 	private final PlayingStrategy aPlayingStrategy;
+	private long aHash;
+	private int[] aUndoLog = new int[INITIAL_LOG_CAPACITY];
+	private int aUndoLogSize;
+	private int aBatchDepth;
+	private int aChangedLocations; // Not yet notified, one bit per location index
 
 	/**
 	 * Creates a new game model initialized to a new game.
@@ -120,22 +155,167 @@ public final class GameModel implements GameModelView {
 		aListeners.add(pListener);
 	}
 
-	private void notifyListeners() {
-		for (GameModelListener listener : aListeners) {
-			listener.gameStateChanged();
+	/**
+	 * Runs pChanges, which may perform and undo any number of moves and reset
+	 * the model, without notifying the listeners of each change. Once
+	 * pChanges completes, normally or not, the listeners are notified once if
+	 * the state of the game differs from what it was before the batch, and not
+	 * at all if all the moves performed were undone. The event they receive
+	 * affects all the locations affected by any of the changes. Batches can be
+	 * nested: only the outermost batch notifies the listeners.
+	 * 
+	 * @param pChanges The changes to make to the model.
+	 * @pre pChanges != null
+	 */
+	public void batch(Runnable pChanges) {
+		assert pChanges != null;
+		long hash = aHash;
+		int moves = aUndoLogSize;
+		aBatchDepth++;
+		try {
+			pChanges.run();
+		}
+		finally {
+			aBatchDepth--;
+			if (aBatchDepth == 0) {
+				if (aHash != hash || aUndoLogSize != moves) {
+					notifyListeners(0);
+				}
+				else {
+					aChangedLocations = 0;
+				}
+			}
+		}
+	}
+
+	/*
+	 * Notifies the listeners that the locations in pLocations, and those of
+	 * the changes not notified yet, were affected, unless a batch is running.
+	 */
+	private void notifyListeners(int pLocations) {
+		aChangedLocations |= pLocations;
+		if (aBatchDepth > 0) {
+			return;
 		}
+		if (!aListeners.isEmpty()) {
+			GameModelEvent event = new GameModelEvent(aChangedLocations);
+			for (GameModelListener listener : aListeners) {
+				listener.gameStateChanged(event);
+			}
+		}
+		aChangedLocations = 0;
+	}
+
+	/*
+	 * The locations affected by the move of an undo log entry: its source and
+	 * its destination.
+	 */
+	private static int locationsOf(int pEntry) {
+		return 1 << (pEntry >>> SOURCE_SHIFT & LOCATION_MASK) | 1 << (pEntry >>> DESTINATION_SHIFT & LOCATION_MASK);
 	}
 
 	/**
 	 * Restores the model to the state corresponding to the start of a new game.
 	 */
 	public void reset() {
-		aMoves.clear();
 		aDeck.shuffle();
+		deal();
+	}
+
+	/**
+	 * Restores the model to the state corresponding to the start of a new game
+	 * whose deal is entirely determined by pSeed. Resetting with the same seed
+	 * always produces the same game.
+	 * 
+	 * @param pSeed The seed that determines the deal.
+	 */
+	public void reset(long pSeed) {
+		aDeck.shuffle(pSeed);
+		deal();
+	}
+
+	/**
+	 * Restores the model to the state corresponding to the start of a new game
+	 * dealt using pRandom as the source of randomness.
+	 * 
+	 * @param pRandom The generator to use to shuffle the deck.
+	 * @pre pRandom != null
+	 */
+	public void reset(RandomGenerator pRandom) {
+		assert pRandom != null;
+		aDeck.shuffle(pRandom);
+		deal();
+	}
+
+	/**
+	 * Restores the model to the state corresponding to the start of a new game
+	 * dealt from a deck whose cards are in the order pDeal. This recreates a
+	 * deal recorded earlier from the order of a deck.
+	 * 
+	 * @param pDeal All 52 cards, from the bottom of the deck to its top.
+	 * @pre pDeal != null and contains each card exactly once.
+	 * @see Deck#restore(Iterable)
+	 */
+	public void reset(Iterable<Card> pDeal) {
+		assert pDeal != null;
+		aDeck.restore(pDeal);
+		deal();
+	}
+
+	/*
+	 * Deals the cards of the freshly shuffled deck.
+	 */
+	private void deal() {
+		aUndoLogSize = 0;
 		aDiscard.clear();
 		aFoundations.initialize();
 		aTableau.initialize(aDeck);
-		notifyListeners();
+		aHash = snapshot().getHash(); // Only computed from scratch when dealing
+		notifyListeners(ALL_LOCATIONS);
+	}
+
+	/**
+	 * Creates a compact copy of the complete current state of the game,
+	 * including the order of the cards in the deck and the face-down cards in
+	 * the tableau. The copy is independent of this model: moves performed on
+	 * it have no effect on the model and do not notify its listeners.
+	 * 
+	 * @return A new compact game state equivalent to the state of this model.
+	 */
+	@Override
+	public CompactGameState snapshot() {
+		CompactGameState state = new CompactGameState();
+		for (int i = 0; i < aDeck.size(); i++) {
+			state.addToDeck(aDeck.peek(i).ordinal());
+		}
+		for (int i = 0; i < aDiscard.size(); i++) {
+			state.addToDiscard(aDiscard.peek(i).ordinal());
+		}
+		for (FoundationPile pile : FoundationPile.values()) {
+			if (!aFoundations.isEmpty(pile)) {
+				state.setFoundationTop(pile.ordinal(), aFoundations.peek(pile).ordinal());
+			}
+		}
+		for (TableauPile pile : TableauPile.values()) {
+			CardStack cards = aTableau.getPile(pile);
+			for (int i = 0; i < cards.size(); i++) {
+				Card card = cards.peek(i);
+				state.addToTableau(pile.ordinal(), card.ordinal(), aTableau.isVisible(card));
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Returns the Zobrist hash of the current position. It is the same as the
+	 * hash of snapshot(), and is obtained in constant time.
+	 * 
+	 * @return A 64-bit hash of the position.
+	 * @see CompactGameState#getHash()
+	 */
+	@Override
+	public long getHash() {
+		return aHash;
 	}
 
 	/**
@@ -184,6 +364,9 @@ public final class GameModel implements GameModelView {
 	 * @pre the card is in a location where it can be found and moved.
 	 */
 	private Location find(Card pCard) {
+		if (aTableau.contains(pCard)) {
+			return aTableau.getPileIndex(pCard);
+		}
 		if (!aDiscard.isEmpty() && aDiscard.peekTop() == pCard) {
 			return OtherLocation.DISCARD_PILE;
 		}
@@ -192,29 +375,62 @@ public final class GameModel implements GameModelView {
 				return index;
 			}
 		}
-		for (TableauPile index : TableauPile.values()) {
-			if (aTableau.contains(pCard, index)) {
-				return index;
-			}
-		}
 		assert false; // We did not find the card: the precondition was not met.
 		return null;
 	}
 
 	/**
-	 * Undoes the last move.
+	 * Undoes the last move, including turning face down the card it revealed,
+	 * if any. Does nothing if there is no move to undo.
 	 */
 	public void undoLast() {
-		if (!aMoves.isEmpty()) {
-			aMoves.pop().undo();
+		if (aUndoLogSize == 0) {
+			return;
 		}
+		int entry = aUndoLog[--aUndoLogSize];
+		Card card = Card.get(entry & CARD_MASK);
+		int source = entry >>> SOURCE_SHIFT & LOCATION_MASK;
+		if (source == CompactGameState.DECK) {
+			aDiscard.pop();
+			aDeck.push(card);
+			aHash ^= Zobrist.location(card.ordinal(), CompactGameState.DECK) ^
+					Zobrist.location(card.ordinal(), CompactGameState.DISCARD);
+		}
+		else {
+			Location origin = CompactGameState.locationOf(source);
+			if ((entry & REVEAL_FLAG) != 0) {
+				TableauPile pile = (TableauPile) origin;
+				aHash ^= Zobrist.visible(aTableau.getPileView(pile).peekTop().ordinal());
+				aTableau.hideTop(pile);
+			}
+			move(card, origin);
+		}
+		notifyListeners(locationsOf(entry));
 	}
 
 	/**
 	 * @return If there is a move to undo.
 	 */
 	public boolean canUndo() {
-		return !aMoves.isEmpty();
+		return aUndoLogSize > 0;
+	}
+
+	/*
+	 * True if the last move performed moved pCard from pSource to
+	 * pDestination.
+	 */
+	private boolean isLastMove(Card pCard, int pSource, int pDestination) {
+		return aUndoLogSize > 0 && (aUndoLog[aUndoLogSize - 1] & ~REVEAL_FLAG) ==
+				(pCard.ordinal() | pSource << SOURCE_SHIFT | pDestination << DESTINATION_SHIFT);
+	}
+
+	private void log(int pEntry) {
+		if (aUndoLogSize == aUndoLog.length) {
+			int[] log = new int[aUndoLog.length * 2];
+			System.arraycopy(aUndoLog, 0, log, 0, aUndoLogSize);
+			aUndoLog = log;
+		}
+		aUndoLog[aUndoLogSize++] = pEntry;
 	}
 
 	/*
@@ -238,9 +454,20 @@ public final class GameModel implements GameModelView {
 	private void move(Card pCard, Location pDestination) {
 		Location source = find(pCard);
 		if (source instanceof TableauPile && pDestination instanceof TableauPile) {
+			PileView pile = aTableau.getPileView((TableauPile) source);
+			int index = pile.size() - 1;
+			while (pile.get(index) != pCard) {
+				aHash ^= relocationKey(pile.get(index), source, pDestination);
+				index--;
+			}
+			aHash ^= relocationKey(pCard, source, pDestination);
 			aTableau.moveWithin(pCard, (TableauPile) pDestination);
 		}
 		else {
+			aHash ^= relocationKey(pCard, source, pDestination);
+			if (source instanceof TableauPile || pDestination instanceof TableauPile) {
+				aHash ^= Zobrist.visible(pCard.ordinal());
+			}
 			absorbCard(source);
 			if (pDestination instanceof FoundationPile) {
 				aFoundations.push(pCard, (FoundationPile) pDestination);
@@ -253,7 +480,15 @@ public final class GameModel implements GameModelView {
 				aTableau.push(pCard, (TableauPile) pDestination);
 			}
 		}
-		notifyListeners();
+	}
+
+	/*
+	 * The change to the hash when pCard moves from pSource to pDestination,
+	 * without changing visibility.
+	 */
+	private static long relocationKey(Card pCard, Location pSource, Location pDestination) {
+		return Zobrist.location(pCard.ordinal(), CompactGameState.indexOf(pSource)) ^
+				Zobrist.location(pCard.ordinal(), CompactGameState.indexOf(pDestination));
 	}
 
 	@Override
@@ -261,6 +496,11 @@ public final class GameModel implements GameModelView {
 		return aTableau.getPile(pIndex);
 	}
 
+	@Override
+	public PileView getTableauPileView(TableauPile pIndex) {
+		return aTableau.getPileView(pIndex);
+	}
+
 	@Override
 	public boolean isVisibleInTableau(Card pCard) {
 		return aTableau.contains(pCard) && aTableau.isVisible(pCard);
@@ -309,10 +549,6 @@ public final class GameModel implements GameModelView {
 
 	@Override
 	public Move getCardMove(Card pCard, Location pDestination) {
-		Location source = find(pCard);
-		if (source instanceof TableauPile && aTableau.revealsTop(pCard)) {
-			return new CompositeMove(new CardMove(pCard, pDestination), new RevealTopMove((TableauPile) source));
-		}
 		return new CardMove(pCard, pDestination);
 	}
 
@@ -325,55 +561,42 @@ public final class GameModel implements GameModelView {
 	/**
 	 * A move that represents the intention to move pCard to pDestination,
 	 * possibly including all cards stacked on top of pCard if pCard is in a
-	 * working stack.
+	 * working stack, and turning face up the card left on top of its tableau
+	 * pile, if any.
 	 */
 	private class CardMove implements Move {
-		private Card aCard;
-		private Location aOrigin;
-		private Location aDestination;
+		private final Card aCard;
+		private final Location aOrigin;
+		private final Location aDestination;
+		private final boolean aRevealsTop;
 
 		CardMove(Card pCard, Location pDestination) {
 			aCard = pCard;
 			aDestination = pDestination;
 			aOrigin = find(pCard);
+			aRevealsTop = aOrigin instanceof TableauPile && aTableau.revealsTop(pCard);
 		}
 
 		@Override
 		public void perform() {
 			assert isLegalMove(aCard, aDestination);
 			move(aCard, aDestination);
-			aMoves.push(this);
-		}
-
-		@Override
-		public void undo() {
-			move(aCard, aOrigin);
-		}
-	}
-
-	/**
-	 * reveals the top of the stack.
-	 *
-	 */
-	private class RevealTopMove implements Move {
-		private final TableauPile aIndex;
-
-		RevealTopMove(TableauPile pIndex) {
-			aIndex = pIndex;
-		}
-
-		@Override
-		public void perform() {
-			aTableau.showTop(aIndex);
-			aMoves.push(this);
-			notifyListeners();
+			int entry = aCard.ordinal() | CompactGameState.indexOf(aOrigin) << SOURCE_SHIFT |
+					CompactGameState.indexOf(aDestination) << DESTINATION_SHIFT;
+			if (aRevealsTop) {
+				TableauPile pile = (TableauPile) aOrigin;
+				aTableau.showTop(pile);
+				aHash ^= Zobrist.visible(aTableau.getPileView(pile).peekTop().ordinal());
+				entry |= REVEAL_FLAG;
+			}
+			log(entry);
+			notifyListeners(locationsOf(entry));
 		}
 
 		@Override
 		public void undo() {
-			aTableau.hideTop(aIndex);
-			aMoves.pop().undo();
-			notifyListeners();
+			assert isLastMove(aCard, CompactGameState.indexOf(aOrigin), CompactGameState.indexOf(aDestination));
+			undoLast();
 		}
 	}
 }
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.model;
+
+/**
+ * Describes a change in the state of the game model by the set of locations
+ * whose content or appearance changed. For example, moving a card from one
+ * tableau pile to another affects these two piles only, even if it turns a
+ * card face up. Drawing a card affects the deck and the discard pile. Dealing
+ * a new game affects all locations. Events are immutable, and can be merged
+ * to describe a sequence of changes as a whole.
+ */
+public final class GameModelEvent {
+	private static final GameModelEvent ALL = new GameModelEvent((1 << CompactGameState.NUMBER_OF_LOCATIONS) - 1);
+
+	private final int aLocations; // One bit per location index of CompactGameState
+
+	GameModelEvent(int pLocations) {
+		aLocations = pLocations;
+	}
+
+	/**
+	 * @return An event that affects every location.
+	 */
+	public static GameModelEvent all() {
+		return ALL;
+	}
+
+	/**
+	 * @param pLocation A location in the game.
+	 * @return True if the content or appearance of pLocation changed.
+	 * @pre pLocation != null
+	 */
+	public boolean affects(Location pLocation) {
+		assert pLocation != null;
+		return (aLocations & 1 << CompactGameState.indexOf(pLocation)) != 0;
+	}
+
+	/**
+	 * @param pEvent Another event.
+	 * @return An event that affects every location affected by this event or
+	 *     by pEvent.
+	 * @pre pEvent != null
+	 */
+	public GameModelEvent merge(GameModelEvent pEvent) {
+		assert pEvent != null;
+		if ((aLocations | pEvent.aLocations) == aLocations) {
+			return this;
+		}
+		return new GameModelEvent(aLocations | pEvent.aLocations);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("GameModelEvent[");
+		String separator = "";
+		for (int index = 0; index < CompactGameState.NUMBER_OF_LOCATIONS; index++) {
+			if ((aLocations & 1 << index) != 0) {
+				result.append(separator).append(CompactGameState.locationOf(index));
+				separator = ", ";
+			}
+		}
+		return result.append(']').toString();
+	}
+}
@@ -27,6 +27,8 @@ package ca.mcgill.solitaire.model;
 public interface GameModelListener {
 	/**
 	 * Called whenever the state of the game model changes.
+	 * 
+	 * @param pEvent Describes which locations changed.
 	 */
-	void gameStateChanged();
+	void gameStateChanged(GameModelEvent pEvent);
 }
@@ -55,6 +55,13 @@ public interface GameModelView {
 	 */
 	CardStack getTableauPile(TableauPile pIndex);
 
+	/**
+	 * @param pIndex The position of the pile to view.
+	 * @return A read-only view of the pile at position pIndex. The view is not
+	 *     a copy and always reflects the current state of the pile.
+	 */
+	PileView getTableauPileView(TableauPile pIndex);
+
 	/**
 	 * @param pCard A card to test for visibility.
 	 * @return True if the card's value is visible in the tableau.
@@ -86,6 +93,26 @@ public interface GameModelView {
 	 */
 	boolean isLegalMove(Card pCard, Location pDestination);
 
+	/**
+	 * Returns an independent copy of the complete state of the game, including
+	 * the cards that are face down or in the deck. This information is not
+	 * available to a human player: strategies that use it play with perfect
+	 * information.
+	 * 
+	 * @return A snapshot of the current state of the game.
+	 */
+	CompactGameState snapshot();
+
+	/**
+	 * Returns a 64-bit Zobrist hash of the current position, obtained in
+	 * constant time. Positions of the same deal with all their cards at the
+	 * same locations, and the same cards face up, have the same hash. Hashes of
+	 * positions from different deals are not comparable.
+	 * 
+	 * @return The hash of the current position.
+	 */
+	long getHash();
+
 	/**
 	 * @return An instance of the Move interface that represents no move at all.
 	 */
@@ -106,4 +133,21 @@ public interface GameModelView {
 	 * @return An instance of the Move interface
 	 */
 	Move getCardMove(Card pCard, Location pDestination);
+
+	/**
+	 * Get the Move that corresponds to a move encoded as by
+	 * CompactGameState.encodeMove, for example a move generated on a snapshot
+	 * of this model.
+	 * 
+	 * @param pMove The encoded move.
+	 * @return Either the discard move or a card move.
+	 * @pre pMove is legal in the current state.
+	 */
+	default Move decodeMove(int pMove) {
+		if (CompactGameState.moveDestination(pMove) == CompactGameState.DISCARD) {
+			return getDiscardMove();
+		}
+		return getCardMove(Card.get(CompactGameState.moveCard(pMove)),
+				CompactGameState.locationOf(CompactGameState.moveDestination(pMove)));
+	}
 }
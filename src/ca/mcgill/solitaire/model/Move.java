@@ -32,7 +32,10 @@ public interface Move {
 	void perform();
 
 	/**
-	 * Undoes the move by reversing its effect.
+	 * Undoes the move by reversing its effect. Moves are undone in the
+	 * reverse order in which they were performed.
+	 * 
+	 * @pre This move is the last move performed that was not undone.
 	 */
 	void undo();
 
@@ -21,9 +21,10 @@
 package ca.mcgill.solitaire.model;
 
 /**
- * Places where a visible card can be located, except for the foundation piles
- * and the tableau.
+ * Places where a card can be located, except for the foundation piles and the
+ * tableau. Cards cannot be moved to the deck: it is a location only for the
+ * purpose of describing changes to the game.
  */
 public enum OtherLocation implements Location {
-	DISCARD_PILE
+	DISCARD_PILE, DECK
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.model;
+
+import ca.mcgill.solitaire.cards.Card;
+
+/**
+ * A read-only view of a pile of cards in the tableau. A view is not a copy:
+ * it always reflects the current state of the pile it was obtained from, and
+ * obtaining or querying it does not allocate any object. Clients that need to
+ * keep the content of a pile as it was at a given point in time should use
+ * GameModelView.getTableauPile instead.
+ */
+public interface PileView {
+	/**
+	 * @return The number of cards in the pile.
+	 */
+	int size();
+
+	/**
+	 * @return True if there are no cards in the pile.
+	 */
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @param pIndex The position of a card, where 0 is the bottom of the pile
+	 *     and size()-1 its top.
+	 * @return The card at position pIndex.
+	 * @pre pIndex >= 0 && pIndex < size()
+	 */
+	Card get(int pIndex);
+
+	/**
+	 * @return The card on top of the pile.
+	 * @pre !isEmpty()
+	 */
+	default Card peekTop() {
+		assert !isEmpty();
+		return get(size() - 1);
+	}
+
+	/**
+	 * @return The card at the bottom of the pile.
+	 * @pre !isEmpty()
+	 */
+	default Card peekBottom() {
+		assert !isEmpty();
+		return get(0);
+	}
+
+	/**
+	 * Returns the position of the lowest card of the sequence of visible cards
+	 * at the top of the pile. All cards from this position to the top of the
+	 * pile are visible, and the card below it, if any, is not.
+	 * 
+	 * @return The position of the lowest visible card, or size() if the top of
+	 *     the pile is not visible or the pile is empty.
+	 */
+	int getFirstVisibleIndex();
+}
@@ -21,6 +21,7 @@
 package ca.mcgill.solitaire.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -37,10 +38,18 @@ import ca.mcgill.solitaire.cards.Rank;
  * Represents seven piles of cards that fan downwards, where cards must be
  * stacked in alternating suit colors, and where cards can be moved from pile to
  * pile.
+ * 
+ * The tableau keeps an index of the pile and position of every card it
+ * contains, indexed by card ordinal, so that locating a card does not require
+ * searching the piles. The index is updated whenever a card is added or
+ * removed.
  */
 class Tableau {
 	private final Map<TableauPile, CardStack> aPiles = new HashMap<>();
+	private final Map<TableauPile, PileView> aViews = new HashMap<>();
 	private final Set<Card> aVisible = new HashSet<>();
+	private final TableauPile[] aLocations = new TableauPile[Card.NUMBER_OF_CARDS];
+	private final int[] aPositions = new int[Card.NUMBER_OF_CARDS];
 
 	/**
 	 * Creates an empty tableau.
@@ -48,6 +57,7 @@ class Tableau {
 	Tableau() {
 		for (TableauPile index : TableauPile.values()) {
 			aPiles.put(index, new CardStack());
+			aViews.put(index, new View(aPiles.get(index)));
 		}
 	}
 
@@ -61,11 +71,12 @@ class Tableau {
 	void initialize(Deck pDeck) {
 		assert pDeck != null;
 		aVisible.clear();
+		Arrays.fill(aLocations, null);
 		for (int i = 0; i < TableauPile.values().length; i++) {
 			aPiles.get(TableauPile.values()[i]).clear();
 			for (int j = 0; j < i + 1; j++) {
 				Card card = pDeck.draw();
-				aPiles.get(TableauPile.values()[i]).push(card);
+				pushCard(card, TableauPile.values()[i]);
 				if (j == i) {
 					aVisible.add(card);
 				}
@@ -90,8 +101,7 @@ class Tableau {
 			return pCard.rank() == Rank.KING;
 		}
 		else {
-			return pCard.rank().ordinal() == pile.peekTop().rank().ordinal() - 1 && 
-					!pCard.suit().sameColorAs(pile.peekTop().suit());
+			return CardRules.canStackOn(pCard, pile.peekTop());
 		}
 	}
 
@@ -102,7 +112,7 @@ class Tableau {
 	 */
 	boolean isBottomKing(Card pCard) {
 		assert pCard != null && contains(pCard);
-		return pCard.rank() == Rank.KING && aPiles.get(getPileIndex(pCard)).peekBottom() == pCard;
+		return pCard.rank() == Rank.KING && aPositions[pCard.ordinal()] == 0;
 	}
 
 	/**
@@ -118,15 +128,27 @@ class Tableau {
 		return new CardStack(aPiles.get(pPile));
 	}
 
-	private TableauPile getPileIndex(Card pCard) {
-		assert contains(pCard);
-		for (TableauPile pile : TableauPile.values()) {
-			if (contains(pCard, pile)) {
-				return pile;
-			}
-		}
-		assert false;
-		return null;
+	/**
+	 * Returns a read-only view of the pile at the specified position in the
+	 * tableau. The same view object is returned for every call.
+	 * 
+	 * @param pPile The pile to view.
+	 * @return A view of the pile at pPile.
+	 * @pre pPile != null
+	 */
+	PileView getPileView(TableauPile pPile) {
+		assert pPile != null;
+		return aViews.get(pPile);
+	}
+
+	/**
+	 * @param pCard The card to locate.
+	 * @return The pile that contains pCard.
+	 * @pre pCard != null && contains(pCard).
+	 */
+	TableauPile getPileIndex(Card pCard) {
+		assert pCard != null && contains(pCard);
+		return aLocations[pCard.ordinal()];
 	}
 	
 	/**
@@ -146,14 +168,11 @@ class Tableau {
 	}
 
 	private Optional<Card> getPreviousCard(Card pCard) {
-		Optional<Card> previous = Optional.empty();
-		for (Card card : aPiles.get(getPileIndex(pCard))) {
-			if (card == pCard) {
-				return previous;
-			}
-			previous = Optional.of(card);
+		int position = aPositions[pCard.ordinal()];
+		if (position == 0) {
+			return Optional.empty();
 		}
-		return Optional.empty();
+		return Optional.of(aPiles.get(getPileIndex(pCard)).peek(position - 1));
 	}
 
 	/**
@@ -172,14 +191,14 @@ class Tableau {
 		TableauPile origin = getPileIndex(pCard);
 		
 		CardStack temp = new CardStack();
-		Card card = aPiles.get(origin).pop();
+		Card card = popCard(origin);
 		temp.push(card);
 		while (card != pCard) {
-			card = aPiles.get(origin).pop();
+			card = popCard(origin);
 			temp.push(card);
 		}
 		while (!temp.isEmpty()) {
-			aPiles.get(pDestination).push(temp.pop());
+			pushCard(temp.pop(), pDestination);
 		}
 	}
 
@@ -195,14 +214,8 @@ class Tableau {
 		assert pCard != null && contains(pCard);
 		CardStack stack = aPiles.get(getPileIndex(pCard));
 		List<Card> lReturn = new ArrayList<>();
-		boolean aSeen = false;
-		for (Card card : stack) {
-			if (card == pCard) {
-				aSeen = true;
-			}
-			if (aSeen) {
-				lReturn.add(card);
-			}
+		for (int i = aPositions[pCard.ordinal()]; i < stack.size(); i++) {
+			lReturn.add(stack.peek(i));
 		}
 		return new CardStack(lReturn);
 	}
@@ -237,12 +250,7 @@ class Tableau {
 	 */
 	boolean contains(Card pCard, TableauPile pIndex) {
 		assert pCard != null && pIndex != null;
-		for (Card card : aPiles.get(pIndex)) {
-			if (card == pCard) {
-				return true;
-			}
-		}
-		return false;
+		return aLocations[pCard.ordinal()] == pIndex;
 	}
 
 	/**
@@ -252,12 +260,7 @@ class Tableau {
 	 */
 	boolean contains(Card pCard) {
 		assert pCard != null;
-		for (TableauPile index : TableauPile.values()) {
-			if (contains(pCard, index)) {
-				return true;
-			}
-		}
-		return false;
+		return aLocations[pCard.ordinal()] != null;
 	}
 
 	/**
@@ -296,7 +299,7 @@ class Tableau {
 	 */
 	void pop(TableauPile pIndex) {
 		assert !aPiles.get(pIndex).isEmpty();
-		aVisible.remove(aPiles.get(pIndex).pop());
+		aVisible.remove(popCard(pIndex));
 	}
 
 	/**
@@ -309,7 +312,56 @@ class Tableau {
 	 */
 	void push(Card pCard, TableauPile pIndex) {
 		assert pCard != null && pIndex != null;
-		aPiles.get(pIndex).push(pCard);
+		pushCard(pCard, pIndex);
 		aVisible.add(pCard);
 	}
+
+	/*
+	 * Pushes pCard on pile pIndex and records its location.
+	 */
+	private void pushCard(Card pCard, TableauPile pIndex) {
+		CardStack pile = aPiles.get(pIndex);
+		aLocations[pCard.ordinal()] = pIndex;
+		aPositions[pCard.ordinal()] = pile.size();
+		pile.push(pCard);
+	}
+
+	/*
+	 * Pops the top card of pile pIndex and erases its location.
+	 */
+	private Card popCard(TableauPile pIndex) {
+		Card card = aPiles.get(pIndex).pop();
+		aLocations[card.ordinal()] = null;
+		return card;
+	}
+
+	/*
+	 * A live, read-only view of one of the piles.
+	 */
+	private class View implements PileView {
+		private final CardStack aPile;
+
+		View(CardStack pPile) {
+			aPile = pPile;
+		}
+
+		@Override
+		public int size() {
+			return aPile.size();
+		}
+
+		@Override
+		public Card get(int pIndex) {
+			return aPile.peek(pIndex);
+		}
+
+		@Override
+		public int getFirstVisibleIndex() {
+			int index = aPile.size();
+			while (index > 0 && aVisible.contains(aPile.peek(index - 1))) {
+				index--;
+			}
+			return index;
+		}
+	}
 }
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.model;
+
+import java.util.SplittableRandom;
+
+import ca.mcgill.solitaire.cards.Card;
+
+/**
+ * Random keys used to compute the Zobrist hash of a game state: the XOR of one
+ * key for the location of every card, and of one key for every card that is
+ * face up in the tableau. Because the hash is a XOR, it can be updated in
+ * constant time whenever a card changes location or visibility.
+ * 
+ * Within a given deal, the location and visibility of every card are enough to
+ * identify a state: the deck is never shuffled again, so the order of the
+ * cards in the deck and discard pile is fixed, face-down cards never move
+ * until they are revealed, and the face-up cards of a tableau pile can only
+ * be stacked in decreasing order of rank. Hashes of states obtained from
+ * different deals are therefore not comparable.
+ * 
+ * The keys are generated from a fixed seed so that hashes are stable across
+ * runs.
+ */
+final class Zobrist {
+	/*
+	 * Hash of a state where all the cards are at location 0, which is the
+	 * initial state of the arrays that store card locations.
+	 */
+	static final long EMPTY;
+
+	private static final long SEED = 0x5EED_50L;
+	private static final long[] LOCATION_KEYS = new long[Card.NUMBER_OF_CARDS * CompactGameState.NUMBER_OF_LOCATIONS];
+	private static final long[] VISIBLE_KEYS = new long[Card.NUMBER_OF_CARDS];
+
+	static {
+		SplittableRandom random = new SplittableRandom(SEED);
+		for (int i = 0; i < LOCATION_KEYS.length; i++) {
+			LOCATION_KEYS[i] = random.nextLong();
+		}
+		for (int i = 0; i < VISIBLE_KEYS.length; i++) {
+			VISIBLE_KEYS[i] = random.nextLong();
+		}
+		long empty = 0;
+		for (int card = 0; card < Card.NUMBER_OF_CARDS; card++) {
+			empty ^= location(card, 0);
+		}
+		EMPTY = empty;
+	}
+
+	private Zobrist() {}
+
+	/*
+	 * The key of card pCard at location index pLocation, as defined by
+	 * CompactGameState.
+	 */
+	static long location(int pCard, int pLocation) {
+		return LOCATION_KEYS[pCard * CompactGameState.NUMBER_OF_LOCATIONS + pLocation];
+	}
+
+	/*
+	 * The key of card pCard being face up in the tableau.
+	 */
+	static long visible(int pCard) {
+		return VISIBLE_KEYS[pCard];
+	}
+}
@@ -21,6 +21,8 @@
 module solitaire {
 	requires javafx.controls;
 	requires transitive javafx.graphics;
+	requires java.management;
 	exports ca.mcgill.solitaire.gui;
 	exports ca.mcgill.solitaire.cards;
+	exports ca.mcgill.solitaire.auto to java.management;
 }
\ No newline at end of file
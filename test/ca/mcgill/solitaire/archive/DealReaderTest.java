@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import static ca.mcgill.solitaire.testutils.Deals.cards;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.cards.CardSerializer;
+import ca.mcgill.solitaire.cards.CardStack;
+
+public class DealReaderTest {
+
+	private static DealReader reader(String pText) throws IOException {
+		return new DealReader(new ByteArrayInputStream(pText.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	@Test
+	void testRead_Text() throws IOException {
+		String text = CardSerializer.serialize(new CardStack(cards(1))) + "\n\n  \n" +
+				CardSerializer.serialize(new CardStack(cards(2))) + "\n";
+		try (DealReader reader = reader(text)) {
+			assertEquals(cards(1), reader.read().get());
+			assertEquals(cards(2), reader.read().get());
+			assertFalse(reader.read().isPresent());
+		}
+	}
+
+	@Test
+	void testRead_Records() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GameRecordWriter writer = new GameRecordWriter(bytes)) {
+			writer.write(new GameRecord(cards(1), new int[0]));
+			writer.write(new GameRecord(cards(2), new int[0]));
+		}
+		try (DealReader reader = new DealReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertEquals(cards(1), reader.read().get());
+			assertEquals(cards(2), reader.read().get());
+			assertFalse(reader.read().isPresent());
+		}
+	}
+
+	@Test
+	void testRead_Empty() throws IOException {
+		try (DealReader reader = reader("")) {
+			assertFalse(reader.read().isPresent());
+		}
+	}
+
+	@Test
+	void testRead_InvalidDeals() throws IOException {
+		String complete = CardSerializer.serialize(new CardStack(cards(1)));
+		String incomplete = complete.substring(0, complete.lastIndexOf(';'));
+		for (String line : List.of(incomplete, incomplete + ";52", incomplete + ";x",
+				incomplete + ";" + cards(1).get(0).ordinal())) {
+			try (DealReader reader = reader(complete + "\n" + line)) {
+				reader.read();
+				assertThrows(IOException.class, reader::read);
+			}
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import static ca.mcgill.solitaire.testutils.Deals.playGreedily;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy;
+import ca.mcgill.solitaire.model.GameModel;
+
+public class GameArchiveTest {
+	private static final int NUMBER_OF_GAMES = 50;
+
+	@TempDir
+	private Path aDirectory;
+
+	private Path write(int pNumberOfGames) throws IOException {
+		Path file = aDirectory.resolve("games.sola");
+		try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+			for (int game = 0; game < pNumberOfGames; game++) {
+				writer.write(playGreedily(game));
+			}
+			assertEquals(pNumberOfGames, writer.getNumberOfGames());
+		}
+		return file;
+	}
+
+	private static void assertArchive(GameArchive pArchive, int pNumberOfGames) throws IOException {
+		assertEquals(pNumberOfGames, pArchive.getNumberOfGames());
+		// Out of order, to exercise random access
+		for (int game = pNumberOfGames - 1; game >= 0; game--) {
+			GameRecord expected = playGreedily(game);
+			GameRecord actual = pArchive.getRecord(game);
+			assertEquals(expected.getDeal(), actual.getDeal());
+			assertEquals(expected.replay().getHash(), actual.replay().getHash());
+		}
+	}
+
+	@Test
+	void testGetRecord() throws IOException {
+		Path file = write(NUMBER_OF_GAMES);
+		try (GameArchive archive = new GameArchive(file)) {
+			assertArchive(archive, NUMBER_OF_GAMES);
+		}
+		try (Stream<Path> files = Files.list(aDirectory)) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	void testClose_Twice() throws IOException {
+		Path file = aDirectory.resolve("games.sola");
+		GameArchiveWriter writer = new GameArchiveWriter(file);
+		writer.write(playGreedily(0));
+		writer.close();
+		writer.close();
+		try (GameArchive archive = new GameArchive(file)) {
+			assertArchive(archive, 1);
+		}
+	}
+
+	@Test
+	void testCreate_NoIndexFile() throws IOException {
+		// The name of the temporary index file, which extends the name of the archive, is too long
+		Path file = aDirectory.resolve("a".repeat(250));
+		assertThrows(IOException.class, () -> new GameArchiveWriter(file));
+		try (Stream<Path> files = Files.list(aDirectory)) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	void testGetRecord_SmallSegments() throws IOException {
+		Path file = write(NUMBER_OF_GAMES);
+		try (GameArchive archive = new GameArchive(file, 100)) {
+			assertArchive(archive, NUMBER_OF_GAMES);
+		}
+	}
+
+	@Test
+	void testGetRecord_Empty() throws IOException {
+		Path file = write(0);
+		try (GameArchive archive = new GameArchive(file)) {
+			assertEquals(0, archive.getNumberOfGames());
+		}
+	}
+
+	@Test
+	void testGetGame() throws IOException {
+		Path file = write(3);
+		try (GameArchive archive = new GameArchive(file)) {
+			GameModel model = archive.getGame(2, new GreedyPlayingStrategy());
+			assertEquals(playGreedily(2).newGame().getHash(), model.getHash());
+		}
+	}
+
+	@Test
+	void testOpen_Truncated() throws IOException {
+		Path file = write(3);
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+		assertThrows(IOException.class, () -> new GameArchive(file));
+	}
+
+	@Test
+	void testOpen_NotAnArchive() throws IOException {
+		Path file = aDirectory.resolve("other");
+		Files.write(file, new byte[] {1, 2, 3});
+		assertThrows(IOException.class, () -> new GameArchive(file));
+	}
+}
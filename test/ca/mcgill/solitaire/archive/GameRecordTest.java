@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.archive;
+
+import static ca.mcgill.solitaire.testutils.Deals.playGreedily;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.cards.Deck;
+import ca.mcgill.solitaire.model.CompactGameState;
+
+public class GameRecordTest {
+
+	private static byte[] write(GameRecord... pRecords) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GameRecordWriter writer = new GameRecordWriter(bytes)) {
+			for (GameRecord record : pRecords) {
+				writer.write(record);
+			}
+			assertEquals(pRecords.length, writer.getNumberOfRecords());
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void assertSameGame(GameRecord pExpected, GameRecord pActual) {
+		assertEquals(pExpected.getDeal(), pActual.getDeal());
+		assertEquals(pExpected.getNumberOfMoves(), pActual.getNumberOfMoves());
+		assertEquals(pExpected.replay().getHash(), pActual.replay().getHash());
+	}
+
+	@Test
+	void testReplay() {
+		Deck deck = new Deck();
+		deck.shuffle(42);
+		GameRecord record = playGreedily(42);
+		CompactGameState initial = new CompactGameState(deck);
+		assertEquals(initial.getHash(), record.newGame().getHash());
+		CompactGameState state = record.replay();
+		assertEquals(record.getNumberOfMoves(), state.getNumberOfMoves());
+		for (int i = 0; i < record.getNumberOfMoves(); i++) {
+			assertEquals(record.getMove(i), state.getMove(i));
+		}
+	}
+
+	@Test
+	void testConstructor_InvalidDeal() {
+		GameRecord record = playGreedily(1);
+		List<Card> deal = new ArrayList<>(record.getDeal());
+		deal.remove(0);
+		assertThrows(IllegalArgumentException.class, () -> new GameRecord(deal, new int[0]));
+		deal.add(deal.get(0));
+		assertThrows(IllegalArgumentException.class, () -> new GameRecord(deal, new int[0]));
+	}
+
+	@Test
+	void testConstructor_IllegalMove() {
+		GameRecord record = playGreedily(1);
+		int[] moves = { CompactGameState.encodeMove(record.getDeal().get(0).ordinal(), 0) };
+		assertThrows(IllegalArgumentException.class, () -> new GameRecord(record.getDeal(), moves));
+	}
+
+	@Test
+	void testWriteRead() throws IOException {
+		GameRecord[] records = { playGreedily(1), playGreedily(2), playGreedily(3) };
+		byte[] bytes = write(records);
+		int expectedSize = 4;
+		for (GameRecord record : records) {
+			expectedSize += 52 + 1 + 2 * record.getNumberOfMoves();
+		}
+		assertEquals(expectedSize, bytes.length);
+		try (GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(bytes))) {
+			for (GameRecord record : records) {
+				Optional<GameRecord> read = reader.read();
+				assertTrue(read.isPresent());
+				assertSameGame(record, read.get());
+			}
+			assertFalse(reader.read().isPresent());
+		}
+	}
+
+	@Test
+	void testRead_Empty() throws IOException {
+		try (GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(write()))) {
+			assertFalse(reader.read().isPresent());
+		}
+	}
+
+	@Test
+	void testRead_NotRecords() {
+		assertThrows(IOException.class, () -> new GameRecordReader(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})));
+	}
+
+	@Test
+	void testRead_Truncated() throws IOException {
+		byte[] bytes = write(playGreedily(1));
+		byte[] truncated = new byte[bytes.length - 1];
+		System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+		try (GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(truncated))) {
+			assertThrows(IOException.class, reader::read);
+		}
+	}
+
+	@Test
+	void testRead_NegativeNumberOfMoves() throws IOException {
+		byte[] bytes = write(playGreedily(1));
+		// Replace the number of moves by a five-byte varint whose last byte overflows into the sign bit
+		byte[] corrupt = new byte[4 + 52 + 5];
+		System.arraycopy(bytes, 0, corrupt, 0, 4 + 52);
+		byte[] numberOfMoves = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F };
+		System.arraycopy(numberOfMoves, 0, corrupt, 4 + 52, numberOfMoves.length);
+		try (GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(corrupt))) {
+			assertThrows(IOException.class, reader::read);
+		}
+	}
+
+	@Test
+	void testRead_WrongSource() throws IOException {
+		byte[] bytes = write(playGreedily(1));
+		// The first move draws a card: flip one of the bits of its source, in the second byte of the move
+		bytes[4 + 52 + 1 + 1] = (byte) (bytes[4 + 52 + 1 + 1] ^ 0x01);
+		try (GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(bytes))) {
+			assertThrows(IOException.class, reader::read);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.archive.DealReader;
+import ca.mcgill.solitaire.cards.CardSerializer;
+import ca.mcgill.solitaire.cards.CardStack;
+import ca.mcgill.solitaire.cards.Deck;
+
+public class BatchSimulatorTest {
+
+	@Test
+	void testRun_NoGames() throws InterruptedException {
+		BatchSimulator.Result result = new BatchSimulator(GreedyPlayingStrategy::new, 2).run(0);
+		assertEquals(0, result.getNumberOfGames());
+		assertEquals(0, result.getWinRatio());
+		assertEquals(0, result.getAverageScore());
+	}
+
+	@Test
+	void testRun_AllGamesPlayed_UnevenShards() throws InterruptedException {
+		BatchSimulator.Result result = new BatchSimulator(NullPlayingStrategy::new, 3).run(10);
+		assertEquals(10, result.getNumberOfGames());
+		assertEquals(0, result.getNumberOfWins());
+		assertEquals(0, result.getTotalScore());
+	}
+
+	@Test
+	void testRun_MoreWorkersThanGames() throws InterruptedException {
+		BatchSimulator.Result result = new BatchSimulator(GreedyPlayingStrategy::new, 4).run(3);
+		assertEquals(3, result.getNumberOfGames());
+		assertTrue(result.getTotalScore() >= 0 && result.getTotalScore() <= 3 * 52);
+		assertTrue(result.getElapsedNanos() > 0);
+	}
+
+	@Test
+	void testRun_Seeded_IndependentOfNumberOfWorkers() throws InterruptedException {
+		BatchSimulator.Result result1 = new BatchSimulator(GreedyPlayingStrategy::new, 1).run(50, 1234);
+		BatchSimulator.Result result2 = new BatchSimulator(GreedyPlayingStrategy::new, 3).run(50, 1234);
+		assertEquals(result1.getTotalScore(), result2.getTotalScore());
+		assertEquals(result1.getNumberOfWins(), result2.getNumberOfWins());
+	}
+
+	@Test
+	void testRun_RecordsStatistics() throws InterruptedException {
+		GameStatistics statistics = new GameStatistics();
+		BatchSimulator simulator = new BatchSimulator(GreedyPlayingStrategy::new, 2, statistics);
+		BatchSimulator.Result result = simulator.run(20, 1234);
+		assertSame(statistics, simulator.getStatistics());
+		assertEquals(20, statistics.getNumberOfGames());
+		assertEquals(result.getNumberOfWins(), statistics.getNumberOfWins());
+		assertEquals(result.getAverageScore(), statistics.getScores().snapshot().getMean(), 1e-9);
+		assertEquals(20, statistics.getMoves().snapshot().getCount());
+		assertTrue(statistics.getMoves().snapshot().getMax() > 0);
+		assertTrue(statistics.getTimes().snapshot().getMax() > 0);
+		simulator.run(10);
+		assertEquals(30, statistics.getNumberOfGames());
+	}
+
+	@Test
+	void testRun_Deals_SameAsSeeded() throws InterruptedException, IOException {
+		StringBuilder corpus = new StringBuilder();
+		for (int game = 0; game < 50; game++) {
+			Deck deck = new Deck();
+			deck.shuffle(1234 + game);
+			corpus.append(CardSerializer.serialize(new CardStack(deck))).append('\n');
+		}
+		BatchSimulator.Result seeded = new BatchSimulator(GreedyPlayingStrategy::new, 1).run(50, 1234);
+		BatchSimulator simulator = new BatchSimulator(GreedyPlayingStrategy::new, 3);
+		BatchSimulator.Result replayed;
+		try (DealReader deals = new DealReader(new ByteArrayInputStream(corpus.toString().getBytes()))) {
+			replayed = simulator.run(deals);
+		}
+		assertEquals(50, replayed.getNumberOfGames());
+		assertEquals(seeded.getTotalScore(), replayed.getTotalScore());
+		assertEquals(seeded.getNumberOfWins(), replayed.getNumberOfWins());
+		assertEquals(50, simulator.getStatistics().getNumberOfGames());
+	}
+
+	@Test
+	void testRun_Deals_Invalid() throws InterruptedException, IOException {
+		Deck deck = new Deck();
+		String corpus = CardSerializer.serialize(new CardStack(deck)) + "\n1;2;3\n";
+		BatchSimulator simulator = new BatchSimulator(GreedyPlayingStrategy::new, 2);
+		try (DealReader deals = new DealReader(new ByteArrayInputStream(corpus.getBytes()))) {
+			assertThrows(IOException.class, () -> simulator.run(deals));
+		}
+		assertEquals(1, simulator.getStatistics().getNumberOfGames());
+	}
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy.Substrategy;
+import ca.mcgill.solitaire.model.GameModel;
+
+public class GreedyPlayingStrategyTest {
+
+	private static int play(PlayingStrategy pStrategy, long pSeed) {
+		GameModel model = new GameModel(pStrategy);
+		model.reset(pSeed);
+		int moves = 0;
+		while (model.tryToAutoPlay()) {
+			moves++;
+		}
+		return moves;
+	}
+
+	@Test
+	void testConfiguration() {
+		List<Substrategy> all = List.of(Substrategy.values());
+		String configuration = GreedyPlayingStrategy.toConfiguration(all);
+		assertEquals(all, GreedyPlayingStrategy.parseConfiguration(configuration));
+		assertEquals(List.of(Substrategy.DISCARD, Substrategy.MOVE_WITHIN_TABLEAU),
+				GreedyPlayingStrategy.parseConfiguration("DISCARD, MOVE_WITHIN_TABLEAU"));
+		assertThrows(IllegalArgumentException.class, () -> GreedyPlayingStrategy.parseConfiguration(""));
+		assertThrows(IllegalArgumentException.class, () -> GreedyPlayingStrategy.parseConfiguration("DISCARD,FOO"));
+		assertThrows(IllegalArgumentException.class, () -> GreedyPlayingStrategy.parseConfiguration("DISCARD,DISCARD"));
+	}
+
+	@Test
+	void testBuilder_SameAsDefault() {
+		GreedyPlayingStrategy built = new GreedyPlayingStrategy.Builder()
+				.configure(GreedyPlayingStrategy.toConfiguration(List.of(Substrategy.values()))).build();
+		assertEquals(new GreedyPlayingStrategy().getSubstrategies(), built.getSubstrategies());
+		for (long seed = 0; seed < 10; seed++) {
+			assertEquals(play(new GreedyPlayingStrategy(), seed), play(built, seed));
+		}
+	}
+
+	@Test
+	void testBuilder_Subset() {
+		SubstrategyStatistics statistics = new SubstrategyStatistics();
+		GreedyPlayingStrategy strategy = new GreedyPlayingStrategy.Builder().add(Substrategy.DISCARD)
+				.instrument(statistics).build();
+		// Only draws the 24 cards of the deck
+		assertEquals(24, play(strategy, 1));
+		assertEquals(25, statistics.getInvocations(Substrategy.DISCARD));
+		assertEquals(0, statistics.getInvocations(Substrategy.MOVE_WITHIN_TABLEAU));
+	}
+
+	@Test
+	void testBuilder_Order() {
+		GreedyPlayingStrategy strategy = new GreedyPlayingStrategy.Builder().add(Substrategy.MOVE_WITHIN_TABLEAU)
+				.configure("DISCARD,MOVE_DISCARD_TO_FOUNDATION").build();
+		assertEquals(List.of(Substrategy.MOVE_WITHIN_TABLEAU, Substrategy.DISCARD,
+				Substrategy.MOVE_DISCARD_TO_FOUNDATION), strategy.getSubstrategies());
+		assertTrue(play(strategy, 1) >= 24);
+		assertThrows(IllegalArgumentException.class,
+				() -> new GreedyPlayingStrategy.Builder().add(Substrategy.DISCARD).configure("DISCARD"));
+	}
+}
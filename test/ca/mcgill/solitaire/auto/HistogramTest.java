@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class HistogramTest {
+
+	private final Histogram aHistogram = new Histogram();
+
+	@ParameterizedTest
+	@ValueSource(longs = {0, 1, 31, 32, 33, 63, 64, 65, 1000, 123_456_789, Long.MAX_VALUE})
+	void testBuckets_Precision(long pValue) {
+		long lowest = Histogram.lowestValueOf(Histogram.bucketOf(pValue));
+		assertTrue(lowest <= pValue);
+		assertTrue(pValue - lowest <= pValue / 32);
+	}
+
+	@Test
+	void testBuckets_Contiguous() {
+		for (int bucket = 1; bucket < 1000; bucket++) {
+			assertEquals(bucket, Histogram.bucketOf(Histogram.lowestValueOf(bucket)));
+			assertEquals(bucket - 1, Histogram.bucketOf(Histogram.lowestValueOf(bucket) - 1));
+		}
+	}
+
+	@Test
+	void testSnapshot_Empty() {
+		Histogram.Snapshot snapshot = aHistogram.snapshot();
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0, snapshot.getMean());
+		assertEquals(0, snapshot.getMax());
+		assertEquals(0, snapshot.getValueAtPercentile(50));
+	}
+
+	@Test
+	void testSnapshot_Percentiles() {
+		for (int value = 1; value <= 100; value++) {
+			aHistogram.record(value);
+		}
+		Histogram.Snapshot snapshot = aHistogram.snapshot();
+		assertEquals(100, snapshot.getCount());
+		assertEquals(50.5, snapshot.getMean());
+		assertEquals(100, snapshot.getMax());
+		assertEquals(1, snapshot.getValueAtPercentile(0));
+		assertEquals(10, snapshot.getValueAtPercentile(10));
+		assertEquals(50, snapshot.getValueAtPercentile(50));
+		assertEquals(98, snapshot.getValueAtPercentile(99)); // Bucket of 98 and 99
+		aHistogram.record(1000);
+		assertEquals(100, snapshot.getCount());
+	}
+
+	@Test
+	void testRecord_Concurrent() throws InterruptedException {
+		try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+			for (int thread = 0; thread < 4; thread++) {
+				executor.submit(() -> {
+					for (int value = 0; value < 10_000; value++) {
+						aHistogram.record(value % 10);
+					}
+				});
+			}
+		}
+		Histogram.Snapshot snapshot = aHistogram.snapshot();
+		assertEquals(40_000, snapshot.getCount());
+		assertEquals(4.5, snapshot.getMean());
+		assertEquals(9, snapshot.getMax());
+	}
+}
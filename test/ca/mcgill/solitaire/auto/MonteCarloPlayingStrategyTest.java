@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.cards.Deck;
+import ca.mcgill.solitaire.model.CompactGameState;
+import ca.mcgill.solitaire.model.GameModel;
+import ca.mcgill.solitaire.model.Move;
+
+public class MonteCarloPlayingStrategyTest {
+	private static final long NO_LIMIT = Long.MAX_VALUE / 2;
+
+	/*
+	 * The moves played on deal pDeal with a pool of pThreads threads.
+	 */
+	private static int[] play(long pDeal, int pThreads) {
+		ForkJoinPool pool = new ForkJoinPool(pThreads);
+		try {
+			Deck deck = new Deck();
+			deck.shuffle(pDeal);
+			CompactGameState state = new CompactGameState(deck);
+			PlayingStrategy strategy = new MonteCarloPlayingStrategy(pool, 8, NO_LIMIT, new SplittableRandom(1));
+			Move move = strategy.getLegalMove(state);
+			while (!move.isNull()) {
+				move.perform();
+				move = strategy.getLegalMove(state);
+			}
+			int[] moves = new int[state.getNumberOfMoves()];
+			for (int i = 0; i < moves.length; i++) {
+				moves[i] = state.getMove(i);
+			}
+			return moves;
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testPlaysToTheEnd() {
+		GameModel model = new GameModel(new MonteCarloPlayingStrategy(ForkJoinPool.commonPool(), 4, NO_LIMIT,
+				new SplittableRandom(1)));
+		model.reset(12);
+		int moves = 0;
+		while (model.tryToAutoPlay()) {
+			moves++;
+		}
+		assertTrue(moves > 0 && moves < 1000);
+	}
+
+	@Test
+	void testStopsWhenCompleted() {
+		Deck deck = new Deck();
+		deck.shuffle(12);
+		CompactGameState state = new CompactGameState(deck);
+		Solver solver = new Solver(1024, 100_000, true);
+		assertEquals(Solver.Status.SOLVED, solver.solve(state));
+		for (int move : solver.getSolution()) {
+			state.perform(move);
+		}
+		assertTrue(new MonteCarloPlayingStrategy().getLegalMove(state).isNull());
+	}
+
+	@Test
+	void testSameDecisionsOnAnyPool() {
+		assertArrayEquals(play(3, 1), play(3, 2));
+	}
+}
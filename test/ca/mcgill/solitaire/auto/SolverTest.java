@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import static ca.mcgill.solitaire.testutils.Deals.deal;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.model.CompactGameState;
+import ca.mcgill.solitaire.model.GameModel;
+
+/**
+ * The deals are identified by their seed: the deal of seed 12 can be won, and
+ * the deal of seed 2 cannot.
+ */
+public class SolverTest {
+
+	@Test
+	void testSolve_Solvable() {
+		Solver solver = new Solver(1024, 100_000, true);
+		CompactGameState state = deal(12);
+		long hash = state.getHash();
+		assertEquals(Solver.Status.SOLVED, solver.solve(state));
+		assertEquals(hash, state.getHash());
+		assertFalse(state.canUndo());
+		for (int move : solver.getSolution()) {
+			state.perform(move);
+		}
+		assertTrue(state.isCompleted());
+	}
+
+	@Test
+	void testSolve_Unsolvable() {
+		Solver solver = new Solver(1 << 16, 100_000, true);
+		CompactGameState state = deal(2);
+		assertEquals(Solver.Status.UNSOLVABLE, solver.solve(state));
+		int[] line = solver.getSolution();
+		assertTrue(line.length > 0);
+		for (int move : line) {
+			state.perform(move);
+		}
+		assertTrue(state.getScore() > 0);
+	}
+
+	@Test
+	void testSolve_NodeLimit() {
+		Solver solver = new Solver(1024, 10, true);
+		assertEquals(Solver.Status.UNKNOWN, solver.solve(deal(2)));
+		assertTrue(solver.getNodesVisited() > 10);
+	}
+
+	@Test
+	void testSolve_HiddenInformation() {
+		Solver solver = new Solver(1024, 100_000, false);
+		CompactGameState state = deal(2);
+		assertEquals(Solver.Status.UNKNOWN, solver.solve(state));
+		int[] line = solver.getSolution();
+		for (int i = 0; i < line.length - 1; i++) {
+			// Only the last move of the line can reveal a card
+			state.perform(line[i]);
+			assertEquals(52, state.getDeckSize() + state.getDiscardSize() + state.getScore() + 
+					Long.bitCount(state.getVisibleCards()) + 21);
+		}
+	}
+
+	@Test
+	void testStrategy_WinsSolvableDeal() {
+		GameModel model = new GameModel(new SolvingPlayingStrategy());
+		model.reset(12);
+		while (model.tryToAutoPlay()) {
+			// Keep playing until the strategy gives up
+		}
+		assertTrue(model.isCompleted());
+	}
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy.Substrategy;
+
+public class StrategyTunerTest {
+
+	@Test
+	void testNeighbors_AllSubstrategies() {
+		List<Substrategy> all = List.of(Substrategy.values());
+		List<List<Substrategy>> neighbors = StrategyTuner.neighbors(all);
+		// 6 removals, and 6 * 5 moves of which 5 are counted twice
+		assertEquals(6 + 25, neighbors.size());
+		assertEquals(neighbors.size(), new HashSet<>(neighbors).size());
+		assertFalse(neighbors.contains(all));
+	}
+
+	@Test
+	void testNeighbors_OneSubstrategy() {
+		List<List<Substrategy>> neighbors = StrategyTuner.neighbors(List.of(Substrategy.DISCARD));
+		// Each of the 5 others before or after it
+		assertEquals(10, neighbors.size());
+		for (List<Substrategy> neighbor : neighbors) {
+			assertEquals(2, neighbor.size());
+			assertTrue(neighbor.contains(Substrategy.DISCARD));
+		}
+	}
+
+	@Test
+	void testTune() throws InterruptedException {
+		StrategyTuner tuner = new StrategyTuner(20, 0, 2);
+		List<Substrategy> initial = List.of(Substrategy.DISCARD);
+		StrategyTuner.Evaluation best = tuner.tune(initial);
+		assertTrue(tuner.getEvaluations().size() > 1);
+		for (StrategyTuner.Evaluation evaluation : tuner.getEvaluations()) {
+			assertEquals(20, evaluation.getNumberOfGames());
+			assertTrue(evaluation.getWinsPerCpuSecond() <= best.getWinsPerCpuSecond());
+		}
+		assertEquals(best.getSubstrategies(), tuner.tune(best.getSubstrategies()).getSubstrategies());
+	}
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy.Substrategy;
+import ca.mcgill.solitaire.model.GameModel;
+
+public class SubstrategyStatisticsTest {
+
+	private final SubstrategyStatistics aStatistics = new SubstrategyStatistics();
+
+	@Test
+	void testRecord() {
+		aStatistics.record(Substrategy.DISCARD, true, 100);
+		aStatistics.record(Substrategy.DISCARD, false, 300);
+		assertEquals(2, aStatistics.getInvocations(Substrategy.DISCARD));
+		assertEquals(1, aStatistics.getHits(Substrategy.DISCARD));
+		assertEquals(0, aStatistics.getInvocations(Substrategy.MOVE_WITHIN_TABLEAU));
+		assertEquals(200, aStatistics.getTimes(Substrategy.DISCARD).snapshot().getMean(), 0.1);
+		assertEquals(400, aStatistics.getTotalNanos()[Substrategy.DISCARD.ordinal()]);
+		assertTrue(aStatistics.report().contains("DISCARD"));
+	}
+
+	@Test
+	void testInstrumentedStrategy() {
+		GameModel model = new GameModel(new GreedyPlayingStrategy(aStatistics));
+		model.reset(1);
+		int moves = 0;
+		while (model.tryToAutoPlay()) {
+			moves++;
+		}
+		long[] invocations = aStatistics.getInvocationCounts();
+		long hits = 0;
+		for (long count : aStatistics.getHitCounts()) {
+			hits += count;
+		}
+		// The final call to the strategy finds no move
+		assertEquals(moves + 1, invocations[0]);
+		assertEquals(moves, hits);
+		for (int i = 1; i < invocations.length; i++) {
+			assertTrue(invocations[i] <= invocations[i - 1]);
+		}
+	}
+
+	@Test
+	void testJmx() throws Exception {
+		aStatistics.record(Substrategy.MOVE_WITHIN_TABLEAU, true, 10);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("ca.mcgill.solitaire.test:type=SubstrategyStatistics");
+		server.registerMBean(aStatistics, name);
+		try {
+			assertArrayEquals(aStatistics.getSubstrategies(), (String[]) server.getAttribute(name, "Substrategies"));
+			long[] invocations = (long[]) server.getAttribute(name, "InvocationCounts");
+			assertEquals(1, invocations[Substrategy.MOVE_WITHIN_TABLEAU.ordinal()]);
+		}
+		finally {
+			server.unregisterMBean(name);
+		}
+	}
+}
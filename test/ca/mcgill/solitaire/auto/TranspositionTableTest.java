@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+
+	@Test
+	void testCapacity_RoundedUp() {
+		assertEquals(4, new TranspositionTable(1).capacity());
+		assertEquals(8, new TranspositionTable(5).capacity());
+		assertEquals(1024, new TranspositionTable(1024).capacity());
+	}
+
+	@Test
+	void testAddContains() {
+		TranspositionTable table = new TranspositionTable(64);
+		assertFalse(table.contains(42));
+		table.add(42);
+		table.add(0);
+		assertTrue(table.contains(42));
+		assertTrue(table.contains(0));
+		assertFalse(table.contains(43));
+		assertEquals(2, table.size());
+		table.clear();
+		assertFalse(table.contains(42));
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	void testAdd_EvictsLeastRecentlyUsed() {
+		// With a single bucket, all hashes compete for the same four slots
+		TranspositionTable table = new TranspositionTable(4);
+		for (long hash = 1; hash <= 4; hash++) {
+			table.add(hash);
+		}
+		assertTrue(table.contains(1));
+		table.add(5);
+		assertEquals(1, table.evictions());
+		assertEquals(4, table.size());
+		assertTrue(table.contains(1));
+		assertFalse(table.contains(2));
+		assertTrue(table.contains(5));
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.auto.WinProbabilityEstimator.Estimate;
+import ca.mcgill.solitaire.model.GameModel;
+
+public class WinProbabilityEstimatorTest {
+
+	private final ExecutorService aExecutor = Executors.newFixedThreadPool(2);
+	private final List<Estimate> aEstimates = new CopyOnWriteArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		aExecutor.shutdownNow();
+	}
+
+	@Test
+	void testEstimate_ConfidenceInterval() {
+		Estimate estimate = new Estimate(10, 5, 0, 20);
+		assertEquals(0.5, estimate.getMinimumProbability(), 1e-9);
+		assertEquals(0.5, estimate.getMaximumProbability(), 1e-9);
+		assertEquals(0.237, estimate.getLowerBound(), 0.001);
+		assertEquals(0.763, estimate.getUpperBound(), 0.001);
+		assertFalse(estimate.isComplete());
+		Estimate none = new Estimate(20, 0, 0, 20);
+		assertEquals(0, none.getLowerBound(), 1e-9);
+		assertTrue(none.getUpperBound() > 0 && none.getUpperBound() < 0.2);
+		assertTrue(none.isComplete());
+	}
+
+	@Test
+	void testEstimate_UndecidedSamples() {
+		// The undecided samples could be wins or losses
+		Estimate estimate = new Estimate(20, 5, 5, 20);
+		assertEquals(0.25, estimate.getMinimumProbability(), 1e-9);
+		assertEquals(0.5, estimate.getMaximumProbability(), 1e-9);
+		assertEquals(0.112, estimate.getLowerBound(), 0.001);
+		assertEquals(0.701, estimate.getUpperBound(), 0.001);
+		Estimate undecided = new Estimate(3, 0, 3, 10);
+		assertEquals(0, undecided.getMinimumProbability(), 1e-9);
+		assertEquals(1, undecided.getMaximumProbability(), 1e-9);
+	}
+
+	@Test
+	void testEstimate_MostlyUndecidedSamples() {
+		// Left out, the undecided samples would give 15% from the 20 decided
+		// samples, which are the easiest ones; over all samples, it is 3% to 83%
+		Estimate estimate = new Estimate(100, 3, 80, 100);
+		assertEquals(0.03, estimate.getMinimumProbability(), 1e-9);
+		assertEquals(0.83, estimate.getMaximumProbability(), 1e-9);
+		assertTrue(estimate.getLowerBound() > 0 && estimate.getLowerBound() < 0.03);
+		assertTrue(estimate.getUpperBound() > 0.83 && estimate.getUpperBound() < 0.9);
+		assertTrue(estimate.isComplete());
+	}
+
+	@Test
+	void testStreamsEstimates() throws InterruptedException {
+		GameModel model = new GameModel(new GreedyPlayingStrategy());
+		model.reset(12);
+		CountDownLatch complete = new CountDownLatch(1);
+		WinProbabilityEstimator estimator = new WinProbabilityEstimator(model, aExecutor, 2, 10, 20_000, estimate -> {
+			aEstimates.add(estimate);
+			if (estimate.isComplete()) {
+				complete.countDown();
+			}
+		});
+		assertNull(estimator.getEstimate());
+		estimator.start();
+		assertTrue(complete.await(60, TimeUnit.SECONDS));
+		assertEquals(10, aEstimates.size());
+		for (int i = 0; i < aEstimates.size(); i++) {
+			assertEquals(i + 1, aEstimates.get(i).getSamples());
+		}
+		assertEquals(aEstimates.get(9), estimator.getEstimate());
+	}
+
+	@Test
+	void testRestartsWhenTheGameChanges() throws InterruptedException {
+		GameModel model = new GameModel(new GreedyPlayingStrategy());
+		model.reset(2);
+		CountDownLatch first = new CountDownLatch(1);
+		WinProbabilityEstimator estimator = new WinProbabilityEstimator(model, aExecutor, 2, 1000, 20_000, estimate -> {
+			aEstimates.add(estimate);
+			first.countDown();
+		});
+		model.addListener(estimator);
+		estimator.start();
+		assertTrue(first.await(60, TimeUnit.SECONDS));
+		// Playing a move cancels the estimation and starts a new one
+		assertTrue(model.tryToAutoPlay());
+		int published = aEstimates.size();
+		Thread.sleep(500);
+		Estimate latest = estimator.getEstimate();
+		if (latest != null) {
+			assertTrue(latest.getSamples() <= aEstimates.size() - published);
+		}
+		estimator.cancel();
+		int cancelled = aEstimates.size();
+		Thread.sleep(200);
+		assertEquals(cancelled, aEstimates.size());
+	}
+}
@@ -23,9 +23,12 @@ package ca.mcgill.solitaire.cards;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.junit.jupiter.api.Test;
 
@@ -103,4 +106,53 @@ public class CardStackTest {
 		assertSame(TWO_OF_CLUBS, aStack.peekTop());
 		assertEquals(2, aStack.size());
 	}
+
+	@Test
+	void testPeekAtIndex() {
+		aStack.push(ACE_OF_CLUBS);
+		aStack.push(TWO_OF_CLUBS);
+		assertSame(ACE_OF_CLUBS, aStack.peek(0));
+		assertSame(TWO_OF_CLUBS, aStack.peek(1));
+		assertEquals(2, aStack.size());
+	}
+
+	@Test
+	void testContains() {
+		assertFalse(aStack.contains(ACE_OF_CLUBS));
+		aStack.push(ACE_OF_CLUBS);
+		assertTrue(aStack.contains(ACE_OF_CLUBS));
+		assertFalse(aStack.contains(TWO_OF_CLUBS));
+		aStack.pop();
+		assertFalse(aStack.contains(ACE_OF_CLUBS));
+	}
+	
+	@Test
+	void testIterator_BottomToTop() {
+		aStack.push(ACE_OF_CLUBS);
+		aStack.push(TWO_OF_CLUBS);
+		Iterator<Card> iterator = aStack.iterator();
+		assertSame(ACE_OF_CLUBS, iterator.next());
+		assertSame(TWO_OF_CLUBS, iterator.next());
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+	
+	@Test
+	void testConstructor_FromCardStack() {
+		aStack.push(ACE_OF_CLUBS);
+		aStack.push(TWO_OF_CLUBS);
+		CardStack copy = new CardStack(aStack);
+		aStack.pop();
+		assertEquals(2, copy.size());
+		assertSame(TWO_OF_CLUBS, copy.peekTop());
+		assertTrue(copy.contains(TWO_OF_CLUBS));
+	}
+	
+	@Test
+	void testToString() {
+		assertEquals("[]", aStack.toString());
+		aStack.push(ACE_OF_CLUBS);
+		aStack.push(TWO_OF_CLUBS);
+		assertEquals(List.of(ACE_OF_CLUBS, TWO_OF_CLUBS).toString(), aStack.toString());
+	}
 }
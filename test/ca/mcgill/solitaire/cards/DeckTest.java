@@ -20,11 +20,17 @@
  *******************************************************************************/
 package ca.mcgill.solitaire.cards;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import org.junit.jupiter.api.Test;
 
@@ -41,4 +47,61 @@ public class DeckTest {
 		}
 		assertTrue(lDeck.isEmpty());
 	}
+	
+	private static List<Card> drawAll(Deck pDeck) {
+		List<Card> cards = new ArrayList<>();
+		while (!pDeck.isEmpty()) {
+			cards.add(pDeck.draw());
+		}
+		return cards;
+	}
+	
+	@Test
+	void testShuffle_SameSeed_SameOrder() {
+		Deck deck1 = new Deck();
+		Deck deck2 = new Deck();
+		deck1.shuffle(42);
+		deck2.shuffle(42);
+		assertEquals(drawAll(deck1), drawAll(deck2));
+	}
+	
+	@Test
+	void testShuffle_DifferentSeeds_DifferentOrder() {
+		Deck deck1 = new Deck();
+		Deck deck2 = new Deck();
+		deck1.shuffle(42);
+		deck2.shuffle(43);
+		assertNotEquals(drawAll(deck1), drawAll(deck2));
+	}
+	
+	@Test
+	void testShuffle_WithGenerator_AllCards() {
+		Deck deck = new Deck();
+		deck.shuffle(new SplittableRandom(7).split());
+		assertEquals(52, new HashSet<>(drawAll(deck)).size());
+	}
+	
+	@Test
+	void testRestore_SameOrder() {
+		Deck deck1 = new Deck();
+		deck1.shuffle(42);
+		List<Card> order = new ArrayList<>();
+		for (Card card : deck1) {
+			order.add(card);
+		}
+		Deck deck2 = new Deck();
+		deck2.restore(order);
+		assertEquals(drawAll(deck1), drawAll(deck2));
+	}
+
+	@Test
+	void testPeek_SameAsIteration() {
+		Deck deck = new Deck();
+		deck.shuffle(42);
+		int index = 0;
+		for (Card card : deck) {
+			assertSame(card, deck.peek(index++));
+		}
+		assertEquals(52, deck.size());
+	}
 }
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy;
+import ca.mcgill.solitaire.model.GameModel;
+
+public class AutoPlayerTest {
+	private static final long TIMEOUT_NANOS = 10_000_000_000L;
+
+	/*
+	 * Steps until auto-play stops, and returns the number of moves performed.
+	 */
+	private static int playToEnd(AutoPlayer pPlayer, GameModel pModel) {
+		long start = System.nanoTime();
+		int moves = 0;
+		long hash = pModel.getHash();
+		while (pPlayer.step()) {
+			if (pModel.getHash() != hash) {
+				moves++;
+				hash = pModel.getHash();
+			}
+			assertTrue(System.nanoTime() - start < TIMEOUT_NANOS);
+		}
+		return moves;
+	}
+
+	@Test
+	void testStep_SameAsAutoPlay() {
+		GameModel expected = new GameModel(new GreedyPlayingStrategy());
+		expected.reset(12);
+		int expectedMoves = 0;
+		while (expected.tryToAutoPlay()) {
+			expectedMoves++;
+		}
+		GameModel model = new GameModel(new GreedyPlayingStrategy());
+		model.reset(12);
+		AutoPlayer player = new AutoPlayer(model, GreedyPlayingStrategy::new);
+		player.startSearch();
+		assertTrue(player.isPlaying());
+		assertEquals(expectedMoves, playToEnd(player, model));
+		assertFalse(player.isPlaying());
+		assertEquals(expected.getHash(), model.getHash());
+		assertEquals(expected.getScore(), model.getScore());
+	}
+
+	@Test
+	void testStep_ModelChanged() {
+		GameModel model = new GameModel(new GreedyPlayingStrategy());
+		model.reset(12);
+		AutoPlayer player = new AutoPlayer(model, GreedyPlayingStrategy::new);
+		player.startSearch();
+		model.getDiscardMove().perform();
+		assertFalse(player.step());
+		assertFalse(player.isPlaying());
+		assertFalse(player.step());
+	}
+}
@@ -20,10 +20,14 @@
  *******************************************************************************/
 package ca.mcgill.solitaire.gui;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -31,6 +35,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import ca.mcgill.solitaire.cards.Card;
 import ca.mcgill.solitaire.testutils.Utils;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.image.Image;
 
 public class CardImagesTest {
@@ -39,21 +44,40 @@ public class CardImagesTest {
 	void testimageForBackOfCard() {
 		assertSame(CardImages.imageForBackOfCard(), CardImages.imageForBackOfCard());
 		assertNotNull(CardImages.imageForBackOfCard());
+		assertInSheet(CardImages.viewportForBackOfCard());
 	}
 
 	@ParameterizedTest
 	@MethodSource("allCards")
 	void testImageForCard(Card pCard) {
 		try {
-			Image image1 = CardImages.imageFor(pCard);
-			Image image2 = CardImages.imageFor(pCard);
-			assertSame(image1, image2);
+			assertSame(CardImages.imageForBackOfCard(), CardImages.imageFor(pCard));
+			assertSame(CardImages.viewportFor(pCard), CardImages.viewportFor(pCard));
+			assertInSheet(CardImages.viewportFor(pCard));
 		}
 		catch (NullPointerException e) {
 			throw new AssertionError(String.format("Image for %s cannot be loaded", pCard));
 		}
 	}
 
+	@Test
+	void testViewportFor_AllDistinct() {
+		Set<Rectangle2D> viewports = new HashSet<>();
+		viewports.add(CardImages.viewportForBackOfCard());
+		for (Card card : allCards()) {
+			Rectangle2D viewport = CardImages.viewportFor(card);
+			assertEquals(CardImages.viewportForBackOfCard().getWidth(), viewport.getWidth());
+			assertEquals(CardImages.viewportForBackOfCard().getHeight(), viewport.getHeight());
+			viewports.add(viewport);
+		}
+		assertEquals(53, viewports.size());
+	}
+
+	private static void assertInSheet(Rectangle2D pViewport) {
+		Image sheet = CardImages.imageForBackOfCard();
+		assertTrue(new Rectangle2D(0, 0, sheet.getWidth(), sheet.getHeight()).contains(pViewport));
+	}
+
 	private static List<Card> allCards() {
 		return Utils.allCards();
 	}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy;
+import ca.mcgill.solitaire.model.GameModel;
+import ca.mcgill.solitaire.model.PileView;
+import ca.mcgill.solitaire.model.TableauPile;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+
+public class CardPileViewTest {
+	private final List<Runnable> aScheduled = new ArrayList<>();
+	private final CoalescingDispatcher aDispatcher = new CoalescingDispatcher(aScheduled::add);
+	private final GameModel aModel = new GameModel(new GreedyPlayingStrategy());
+
+	CardPileViewTest() {
+		aModel.reset(1);
+		aModel.addListener(aDispatcher);
+	}
+
+	private void runScheduled() {
+		List<Runnable> scheduled = new ArrayList<>(aScheduled);
+		aScheduled.clear();
+		scheduled.forEach(Runnable::run);
+	}
+
+	private void assertShowsPile(CardPileView pView, TableauPile pIndex) {
+		PileView pile = aModel.getTableauPileView(pIndex);
+		if (pile.isEmpty()) {
+			assertEquals(1, pView.getChildren().size());
+			assertFalse(pView.getChildren().get(0).isVisible());
+			return;
+		}
+		assertEquals(pile.size(), pView.getChildren().size());
+		for (int offset = 0; offset < pile.size(); offset++) {
+			ImageView image = (ImageView) pView.getChildren().get(offset);
+			assertTrue(image.isVisible());
+			if (aModel.isVisibleInTableau(pile.get(offset))) {
+				assertSame(CardImages.imageFor(pile.get(offset)), image.getImage());
+				assertSame(CardImages.viewportFor(pile.get(offset)), image.getViewport());
+			}
+			else {
+				assertSame(CardImages.imageForBackOfCard(), image.getImage());
+				assertSame(CardImages.viewportForBackOfCard(), image.getViewport());
+			}
+		}
+	}
+
+	@Test
+	void testUpdate_ReusesImageViews() {
+		CardPileView[] views = new CardPileView[TableauPile.values().length];
+		for (TableauPile pile : TableauPile.values()) {
+			views[pile.ordinal()] = new CardPileView(aModel, aDispatcher, pile);
+			assertShowsPile(views[pile.ordinal()], pile);
+		}
+		List<Node> bottoms = new ArrayList<>();
+		for (CardPileView view : views) {
+			bottoms.add(view.getChildren().get(0));
+		}
+		for (int i = 0; i < 200 && aModel.tryToAutoPlay(); i++) {
+			runScheduled();
+			for (TableauPile pile : TableauPile.values()) {
+				assertShowsPile(views[pile.ordinal()], pile);
+				assertSame(bottoms.get(pile.ordinal()), views[pile.ordinal()].getChildren().get(0));
+			}
+		}
+		while (aModel.canUndo()) {
+			aModel.undoLast();
+		}
+		runScheduled();
+		for (TableauPile pile : TableauPile.values()) {
+			assertShowsPile(views[pile.ordinal()], pile);
+		}
+	}
+}
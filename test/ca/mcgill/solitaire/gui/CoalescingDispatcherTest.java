@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy;
+import ca.mcgill.solitaire.model.GameModel;
+import ca.mcgill.solitaire.model.GameModelEvent;
+import ca.mcgill.solitaire.model.OtherLocation;
+import ca.mcgill.solitaire.model.TableauPile;
+
+public class CoalescingDispatcherTest {
+	private final List<Runnable> aScheduled = new ArrayList<>();
+	private final List<GameModelEvent> aEvents = new ArrayList<>();
+	private final CoalescingDispatcher aDispatcher = new CoalescingDispatcher(aScheduled::add);
+
+	CoalescingDispatcherTest() {
+		aDispatcher.addListener(aEvents::add);
+	}
+
+	private void runScheduled() {
+		List<Runnable> scheduled = new ArrayList<>(aScheduled);
+		aScheduled.clear();
+		scheduled.forEach(Runnable::run);
+	}
+
+	@Test
+	void testGameStateChanged_Merged() {
+		GameModel model = new GameModel(new GreedyPlayingStrategy());
+		model.reset(1);
+		model.addListener(aDispatcher);
+		model.getDiscardMove().perform();
+		model.getDiscardMove().perform();
+		assertEquals(1, aScheduled.size());
+		assertTrue(aEvents.isEmpty());
+		runScheduled();
+		assertEquals(1, aEvents.size());
+		assertTrue(aEvents.get(0).affects(OtherLocation.DECK));
+		assertTrue(aEvents.get(0).affects(OtherLocation.DISCARD_PILE));
+		assertFalse(aEvents.get(0).affects(TableauPile.FIRST));
+	}
+
+	@Test
+	void testGameStateChanged_NewDispatchAfterDispatch() {
+		aDispatcher.gameStateChanged(GameModelEvent.all());
+		runScheduled();
+		aDispatcher.gameStateChanged(GameModelEvent.all());
+		assertEquals(1, aScheduled.size());
+		runScheduled();
+		assertEquals(2, aEvents.size());
+	}
+}
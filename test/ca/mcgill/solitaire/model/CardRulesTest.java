@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.model;
+
+import static ca.mcgill.solitaire.testutils.Cards.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.cards.Rank;
+
+public class CardRulesTest {
+
+	@Test
+	void testCanStackOn() {
+		assertTrue(CardRules.canStackOn(CQD, CKS));
+		assertTrue(CardRules.canStackOn(CQH, CKC));
+		assertFalse(CardRules.canStackOn(CQS, CKS));
+		assertFalse(CardRules.canStackOn(CQD, CKH));
+		assertFalse(CardRules.canStackOn(CJD, CKS));
+		assertFalse(CardRules.canStackOn(CKS, CQD));
+	}
+
+	@Test
+	void testCanStackOn_AllCards() {
+		for (int card = 0; card < Card.NUMBER_OF_CARDS; card++) {
+			long stackable = 0;
+			for (int target = 0; target < Card.NUMBER_OF_CARDS; target++) {
+				Card lower = Card.get(card);
+				Card upper = Card.get(target);
+				boolean expected = lower.rank().ordinal() + 1 == upper.rank().ordinal() &&
+						!lower.suit().sameColorAs(upper.suit());
+				assertEquals(expected, CardRules.canStackOn(card, target));
+				if (CardRules.canStackOn(target, card)) {
+					stackable |= 1L << target;
+				}
+			}
+			assertEquals(stackable, CardRules.getStackableOn(card));
+		}
+	}
+
+	@Test
+	void testNextInSuit() {
+		assertEquals(C2C.ordinal(), CardRules.getNextInSuit(CAC.ordinal()));
+		assertEquals(CKH.ordinal(), CardRules.getNextInSuit(CQH.ordinal()));
+		assertEquals(-1, CardRules.getNextInSuit(CKS.ordinal()));
+		assertTrue(CardRules.isNextInSuit(C3D, C2D));
+		assertFalse(CardRules.isNextInSuit(C3D, C2H));
+		assertFalse(CardRules.isNextInSuit(CAD, CKD));
+		for (int card = 0; card < Card.NUMBER_OF_CARDS; card++) {
+			if (Card.get(card).rank() != Rank.KING) {
+				Card next = Card.get(CardRules.getNextInSuit(card));
+				assertEquals(Card.get(card).suit(), next.suit());
+				assertEquals(Card.get(card).rank().ordinal() + 1, next.rank().ordinal());
+			}
+		}
+	}
+}
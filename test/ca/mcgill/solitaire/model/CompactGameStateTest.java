@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.model;
+
+import static ca.mcgill.solitaire.testutils.Cards.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy;
+import ca.mcgill.solitaire.auto.PlayingStrategy;
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.cards.Deck;
+import ca.mcgill.solitaire.testutils.StubDeck;
+
+/**
+ * Tests for CompactGameState. The main oracle is GameModel: the same deal
+ * played with the same strategy must lead to the same states.
+ * 
+ * With a StubDeck, the tableau is (bottom -> top):
+ * 1: KS
+ * 2: QS JS
+ * 3: TS 9S 8S
+ * 4: 7S 6S 5S 4S
+ * 5: 3S 2S AS KH QH
+ * 6: JH TH 9H 8H 7H 6H 
+ * 7: 5H 4H 3H 2H AH KD QD
+ */
+public class CompactGameStateTest {
+	
+	private final CompactGameState aState = new CompactGameState(new StubDeck());
+	
+	private static int index(Location pLocation) {
+		return CompactGameState.indexOf(pLocation);
+	}
+	
+	/*
+	 * A description of everything that is observable through GameModelView.
+	 */
+	private static String describe(GameModelView pView) {
+		StringBuilder result = new StringBuilder();
+		result.append(pView.isDeckEmpty()).append('|');
+		if (!pView.isDiscardPileEmpty()) {
+			result.append(pView.peekDiscardPile());
+		}
+		for (FoundationPile pile : FoundationPile.values()) {
+			result.append('|').append(pView.isFoundationPileEmpty(pile));
+		}
+		for (TableauPile pile : TableauPile.values()) {
+			result.append('|');
+			for (Card card : pView.getTableauPile(pile)) {
+				result.append(card).append(pView.isVisibleInTableau(card)).append(',');
+			}
+		}
+		return result.toString();
+	}
+	
+	@Test
+	void testDeal() {
+		assertEquals(1, aState.getPileSize(0));
+		assertEquals(7, aState.getPileSize(6));
+		assertEquals(CKS.ordinal(), aState.getPileCard(0, 0));
+		assertEquals(CQD.ordinal(), aState.getPileCard(6, 6));
+		assertTrue(aState.isVisible(CQD.ordinal()));
+		assertFalse(aState.isVisible(CKD.ordinal()));
+		assertEquals(24, aState.getDeckSize());
+		assertTrue(aState.isDiscardPileEmpty());
+		assertEquals(0, aState.getScore());
+	}
+	
+	@Test
+	void testDraw_AndUndo() {
+		aState.draw();
+		assertSame(CJD, aState.peekDiscardPile());
+		assertEquals(23, aState.getDeckSize());
+		aState.undoLast();
+		assertTrue(aState.isDiscardPileEmpty());
+		assertEquals(24, aState.getDeckSize());
+		assertFalse(aState.canUndo());
+	}
+	
+	@Test
+	void testCanMove() {
+		assertTrue(aState.canMove(CQD.ordinal(), index(TableauPile.FIRST)));
+		assertFalse(aState.canMove(C6H.ordinal(), index(TableauPile.FIRST)));
+		// Not visible
+		assertFalse(aState.canMove(CKD.ordinal(), index(TableauPile.FIRST)));
+		assertFalse(aState.canMove(CQD.ordinal(), index(FoundationPile.FIRST)));
+	}
+	
+	@Test
+	void testMove_Reveals_AndUndo() {
+		String initial = describe(aState);
+		aState.move(CQD.ordinal(), index(TableauPile.FIRST));
+		assertTrue(aState.isVisible(CKD.ordinal()));
+		assertEquals(index(TableauPile.FIRST), aState.getLocation(CQD.ordinal()));
+		aState.move(CJS.ordinal(), index(TableauPile.FIRST));
+		assertTrue(aState.isVisible(CQS.ordinal()));
+		aState.move(CQS.ordinal(), index(TableauPile.SEVENTH));
+		aState.move(CKD.ordinal(), index(TableauPile.SECOND));
+		assertTrue(aState.isVisible(CAH.ordinal()));
+		aState.move(CAH.ordinal(), index(FoundationPile.THIRD));
+		assertEquals(1, aState.getScore());
+		assertEquals(CAH.ordinal(), aState.getFoundationTop(2));
+		assertTrue(aState.isLowestVisibleInTableau(C2H));
+		aState.move(C2H.ordinal(), index(FoundationPile.THIRD));
+		assertEquals(2, aState.getScore());
+		assertEquals(6, aState.getNumberOfMoves());
+		while (aState.canUndo()) {
+			aState.undoLast();
+		}
+		assertEquals(initial, describe(aState));
+	}
+	
+	@Test
+	void testMove_Sequence() {
+		aState.move(CQD.ordinal(), index(TableauPile.FIRST));
+		aState.move(CJS.ordinal(), index(TableauPile.FIRST));
+		aState.move(CQS.ordinal(), index(TableauPile.SEVENTH));
+		aState.move(CKS.ordinal(), index(TableauPile.SECOND));
+		assertEquals(0, aState.getPileSize(0));
+		assertEquals(3, aState.getPileSize(1));
+		assertEquals(CJS.ordinal(), aState.getPileCard(1, 2));
+		assertTrue(aState.isBottomKing(CKS));
+		assertTrue(aState.isLowestVisibleInTableau(CKS));
+		assertFalse(aState.isLowestVisibleInTableau(CQD));
+		aState.undoLast();
+		assertEquals(3, aState.getPileSize(0));
+		assertEquals(0, aState.getPileSize(1));
+	}
+	
+	@Test
+	void testCopy_Independent() {
+		CompactGameState copy = new CompactGameState(aState);
+		copy.draw();
+		assertTrue(aState.isDiscardPileEmpty());
+		assertFalse(copy.isDiscardPileEmpty());
+		copy.undoLast();
+		assertEquals(describe(aState), describe(copy));
+	}
+	
+	@ParameterizedTest
+	@ValueSource(longs = {1, 2, 3, 17, 42, 2025})
+	void testEquivalentToGameModel(long pSeed) {
+		PlayingStrategy strategy = new GreedyPlayingStrategy();
+		GameModel model = new GameModel(strategy);
+		model.reset(pSeed);
+		Deck deck = new Deck();
+		deck.shuffle(pSeed);
+		CompactGameState state = new CompactGameState(deck);
+		assertEquals(describe(model), describe(state));
+		assertEquals(describe(model), describe(model.snapshot()));
+		boolean advanced = true;
+		while (advanced) {
+			advanced = model.tryToAutoPlay();
+			Move move = strategy.getLegalMove(state);
+			move.perform();
+			assertEquals(advanced, !move.isNull());
+			assertEquals(describe(model), describe(state));
+		}
+		assertEquals(model.getScore(), state.getScore());
+		assertEquals(describe(state), describe(model.snapshot()));
+		while (state.canUndo()) {
+			state.undoLast();
+			model.undoLast();
+			assertEquals(describe(model), describe(state));
+		}
+	}
+	
+	/*
+	 * All the legal moves, found by trying every card on every destination,
+	 * sorted.
+	 */
+	private static int[] allLegalMoves(CompactGameState pState) {
+		int[] moves = new int[CompactGameState.MAX_MOVES];
+		int count = 0;
+		for (int card = 0; card < Card.NUMBER_OF_CARDS; card++) {
+			for (int destination = 0; destination < CompactGameState.DISCARD; destination++) {
+				if (pState.canMove(card, destination)) {
+					moves[count++] = CompactGameState.encodeMove(card, destination);
+				}
+			}
+		}
+		if (!pState.isDeckEmpty()) {
+			moves[count++] = CompactGameState.encodeMove(pState.getDeckTop(), CompactGameState.DISCARD);
+		}
+		int[] result = Arrays.copyOf(moves, count);
+		Arrays.sort(result);
+		return result;
+	}
+	
+	private static int[] generateMoves(CompactGameState pState) {
+		int[] moves = new int[CompactGameState.MAX_MOVES];
+		int count = pState.generateMoves(moves);
+		int[] result = Arrays.copyOf(moves, count);
+		Arrays.sort(result);
+		return result;
+	}
+	
+	@Test
+	void testGenerateMoves_Initial() {
+		int[] moves = new int[CompactGameState.MAX_MOVES];
+		int count = aState.generateMoves(moves);
+		// QD and QH on KS, JS on QH and QD, and drawing a card
+		assertEquals(5, count);
+		assertEquals(CompactGameState.encodeMove(CQD.ordinal(), index(TableauPile.FIRST)), moves[0]);
+		assertEquals(CompactGameState.encodeMove(CQH.ordinal(), index(TableauPile.FIRST)), moves[1]);
+		assertEquals(CompactGameState.encodeMove(CJS.ordinal(), index(TableauPile.FIFTH)), moves[2]);
+		assertEquals(CompactGameState.encodeMove(CJS.ordinal(), index(TableauPile.SEVENTH)), moves[3]);
+		assertEquals(CompactGameState.DISCARD, CompactGameState.moveDestination(moves[count - 1]));
+		aState.perform(moves[count - 1]);
+		assertFalse(aState.isDiscardPileEmpty());
+		assertEquals(CompactGameState.moveCard(moves[count - 1]), aState.getDiscardTop());
+	}
+	
+	@ParameterizedTest
+	@ValueSource(longs = {1, 2, 3, 17, 42, 2025})
+	void testGenerateMoves_RandomPlay(long pSeed) {
+		Deck deck = new Deck();
+		deck.shuffle(pSeed);
+		CompactGameState state = new CompactGameState(deck);
+		SplittableRandom random = new SplittableRandom(pSeed);
+		int[] moves = generateMoves(state);
+		while (moves.length > 0 && state.getNumberOfMoves() < 200) {
+			assertArrayEquals(allLegalMoves(state), moves);
+			state.perform(moves[random.nextInt(moves.length)]);
+			moves = generateMoves(state);
+		}
+		while (state.canUndo()) {
+			state.undoLast();
+			assertArrayEquals(allLegalMoves(state), generateMoves(state));
+		}
+	}
+	
+	@Test
+	void testGetHash() {
+		long initial = aState.getHash();
+		assertEquals(initial, new CompactGameState(new StubDeck()).getHash());
+		aState.draw();
+		long drawn = aState.getHash();
+		assertNotEquals(initial, drawn);
+		aState.move(CQD.ordinal(), index(TableauPile.FIRST));
+		assertNotEquals(drawn, aState.getHash());
+		assertEquals(aState.getHash(), new CompactGameState(aState).getHash());
+		aState.undoLast();
+		assertEquals(drawn, aState.getHash());
+		aState.undoLast();
+		assertEquals(initial, aState.getHash());
+	}
+	
+	@Test
+	void testGetHash_Transposition() {
+		// Drawing then moving QD, or the reverse, leads to the same position
+		CompactGameState other = new CompactGameState(aState);
+		aState.draw();
+		aState.move(CQD.ordinal(), index(TableauPile.FIRST));
+		other.move(CQD.ordinal(), index(TableauPile.FIRST));
+		other.draw();
+		assertEquals(describe(aState), describe(other));
+		assertEquals(aState.getHash(), other.getHash());
+	}
+	
+	@ParameterizedTest
+	@ValueSource(longs = {1, 2, 3, 17, 42, 2025})
+	void testGetHash_RestoredByUndo(long pSeed) {
+		Deck deck = new Deck();
+		deck.shuffle(pSeed);
+		CompactGameState state = new CompactGameState(deck);
+		long[] hashes = new long[100];
+		SplittableRandom random = new SplittableRandom(pSeed);
+		int[] moves = generateMoves(state);
+		while (moves.length > 0 && state.getNumberOfMoves() < hashes.length) {
+			hashes[state.getNumberOfMoves()] = state.getHash();
+			state.perform(moves[random.nextInt(moves.length)]);
+			moves = generateMoves(state);
+		}
+		while (state.canUndo()) {
+			state.undoLast();
+			assertEquals(hashes[state.getNumberOfMoves()], state.getHash());
+		}
+	}
+	
+	@ParameterizedTest
+	@ValueSource(longs = {1, 2, 3, 17, 42, 2025})
+	void testShuffleHiddenCards(long pSeed) {
+		Deck deck = new Deck();
+		deck.shuffle(pSeed);
+		CompactGameState state = new CompactGameState(deck);
+		PlayingStrategy strategy = new GreedyPlayingStrategy();
+		for (int i = 0; i < 10; i++) {
+			strategy.getLegalMove(state).perform();
+		}
+		CompactGameState shuffled = new CompactGameState(state);
+		shuffled.shuffleHiddenCards(new SplittableRandom(pSeed));
+		assertEquals(state.getVisibleCards(), shuffled.getVisibleCards());
+		assertEquals(state.getDeckSize(), shuffled.getDeckSize());
+		boolean moved = false;
+		long hash = Zobrist.EMPTY;
+		for (int card = 0; card < Card.NUMBER_OF_CARDS; card++) {
+			boolean hidden = state.getLocation(card) == CompactGameState.DECK ||
+					CompactGameState.isTableau(state.getLocation(card)) && !state.isVisible(card);
+			if (!hidden) {
+				assertEquals(state.getLocation(card), shuffled.getLocation(card));
+				assertEquals(state.getPosition(card), shuffled.getPosition(card));
+			}
+			else {
+				moved |= state.getLocation(card) != shuffled.getLocation(card);
+			}
+			int location = shuffled.getLocation(card);
+			if (CompactGameState.isTableau(location)) {
+				int pile = location - CompactGameState.indexOf(TableauPile.FIRST);
+				assertEquals(card, shuffled.getPileCard(pile, shuffled.getPosition(card)));
+			}
+			else if (location == CompactGameState.DECK) {
+				assertTrue(shuffled.getPosition(card) < shuffled.getDeckSize());
+			}
+			hash ^= Zobrist.location(card, 0) ^ Zobrist.location(card, location);
+			if (shuffled.isVisible(card)) {
+				hash ^= Zobrist.visible(card);
+			}
+		}
+		assertTrue(moved);
+		assertEquals(hash, shuffled.getHash());
+		while (shuffled.canUndo()) {
+			shuffled.undoLast();
+		}
+		assertEquals(24, shuffled.getDeckSize());
+		assertEquals(7, Long.bitCount(shuffled.getVisibleCards()));
+	}
+}
@@ -23,14 +23,23 @@ package ca.mcgill.solitaire.model;
 import static ca.mcgill.solitaire.testutils.Cards.*;
 import static org.junit.Assert.assertSame;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import ca.mcgill.solitaire.auto.GreedyPlayingStrategy;
+import ca.mcgill.solitaire.cards.Card;
 import ca.mcgill.solitaire.cards.CardStack;
+import ca.mcgill.solitaire.cards.Deck;
 import ca.mcgill.solitaire.testutils.StubDeck;
 
 /**
@@ -94,7 +103,7 @@ public class GameModelTest {
 		// aModel.addListener(() -> test[0] = true);
 		aModel.addListener(new GameModelListener() {
 			@Override
-			public void gameStateChanged() {
+			public void gameStateChanged(GameModelEvent pEvent) {
 				test[0] = true;
 			}
 		});
@@ -102,6 +111,70 @@ public class GameModelTest {
 		assertTrue(test[0]);
 	}
 	
+	@Test
+	void testListeners_AffectedLocations() {
+		List<GameModelEvent> events = new ArrayList<>();
+		aModel.addListener(events::add);
+		aModel.getCardMove(CQD, TableauPile.FIRST).perform();
+		aModel.getDiscardMove().perform();
+		aModel.undoLast();
+		aModel.reset();
+		assertEquals(4, events.size());
+		assertAffects(events.get(0), TableauPile.FIRST, TableauPile.SEVENTH);
+		assertAffects(events.get(1), OtherLocation.DECK, OtherLocation.DISCARD_PILE);
+		assertAffects(events.get(2), OtherLocation.DECK, OtherLocation.DISCARD_PILE);
+		assertAffects(events.get(3), allLocations().toArray(new Location[0]));
+	}
+	
+	private static List<Location> allLocations() {
+		List<Location> locations = new ArrayList<>(List.of(FoundationPile.values()));
+		locations.addAll(List.of(TableauPile.values()));
+		locations.addAll(List.of(OtherLocation.values()));
+		return locations;
+	}
+	
+	private static void assertAffects(GameModelEvent pEvent, Location... pLocations) {
+		for (Location location : allLocations()) {
+			assertEquals(List.of(pLocations).contains(location), pEvent.affects(location), location.toString());
+		}
+	}
+	
+	@Test
+	void testBatch_NetChange_NotifiesOnce() {
+		List<GameModelEvent> events = new ArrayList<>();
+		aModel.addListener(events::add);
+		aModel.batch(() -> {
+			aModel.getCardMove(CQD, TableauPile.FIRST).perform();
+			aModel.getCardMove(CJS, TableauPile.FIRST).perform();
+			aModel.undoLast();
+			aModel.getDiscardMove().perform();
+		});
+		assertEquals(1, events.size());
+		assertAffects(events.get(0), TableauPile.FIRST, TableauPile.SECOND, TableauPile.SEVENTH,
+				OtherLocation.DECK, OtherLocation.DISCARD_PILE);
+		assertSame(CJD, aModel.peekDiscardPile());
+	}
+	
+	@Test
+	void testBatch_AllUndone_NoNotification() {
+		int[] notifications = { 0 };
+		aModel.addListener(event -> notifications[0]++);
+		long hash = aModel.getHash();
+		aModel.batch(() -> {
+			aModel.getCardMove(CQD, TableauPile.FIRST).perform();
+			aModel.batch(() -> aModel.getDiscardMove().perform());
+			aModel.undoLast();
+			aModel.undoLast();
+		});
+		assertEquals(0, notifications[0]);
+		assertEquals(hash, aModel.getHash());
+		List<GameModelEvent> events = new ArrayList<>();
+		aModel.addListener(events::add);
+		aModel.getDiscardMove().perform();
+		assertEquals(1, notifications[0]);
+		assertAffects(events.get(0), OtherLocation.DECK, OtherLocation.DISCARD_PILE);
+	}
+	
 	@Test
 	void testListeners_None() {
 		// There is no assert here. The test
@@ -192,6 +265,32 @@ public class GameModelTest {
 		assertSame(C5H, pile.pop());
 	}
 	
+	@Test
+	void testGetTableauPileView_Initial() {
+		PileView pile = aModel.getTableauPileView(TableauPile.SEVENTH);
+		assertEquals(7, pile.size());
+		assertSame(C5H, pile.peekBottom());
+		assertSame(CQD, pile.peekTop());
+		assertSame(CAH, pile.get(4));
+		assertEquals(6, pile.getFirstVisibleIndex());
+	}
+	
+	@Test
+	void testGetTableauPileView_Live() {
+		PileView pile = aModel.getTableauPileView(TableauPile.SEVENTH);
+		assertSame(pile, aModel.getTableauPileView(TableauPile.SEVENTH));
+		aModel.getCardMove(CQD, TableauPile.FIRST).perform();
+		assertEquals(6, pile.size());
+		assertSame(CKD, pile.peekTop());
+		assertEquals(5, pile.getFirstVisibleIndex());
+		PileView first = aModel.getTableauPileView(TableauPile.FIRST);
+		assertEquals(2, first.size());
+		assertEquals(0, first.getFirstVisibleIndex());
+		aModel.undoLast();
+		assertEquals(7, pile.size());
+		assertEquals(6, pile.getFirstVisibleIndex());
+	}
+	
 	@Test
 	void testGetSubStack_SingleCard() {
 		CardStack stack = aModel.getSubpile(CKS);
@@ -223,6 +322,105 @@ public class GameModelTest {
 		assertSame(C8S, stack.pop());
 	}
 	
+	@Test
+	void testReset_SameSeed_SameDeal() {
+		GameModel model = new GameModel(new GreedyPlayingStrategy());
+		model.reset(2025);
+		aModel.reset(2025);
+		for (TableauPile pile : TableauPile.values()) {
+			assertEquals(aModel.getTableauPile(pile).toString(), model.getTableauPile(pile).toString());
+		}
+		while (!aModel.isDeckEmpty()) {
+			aModel.getDiscardMove().perform();
+			model.getDiscardMove().perform();
+			assertSame(aModel.peekDiscardPile(), model.peekDiscardPile());
+		}
+	}
+	
+	@Test
+	void testReset_Deal() {
+		Deck deck = new Deck();
+		deck.shuffle(2025);
+		List<Card> deal = new ArrayList<>();
+		for (Card card : deck) {
+			deal.add(card);
+		}
+		GameModel model = new GameModel(new GreedyPlayingStrategy());
+		model.reset(2025);
+		aModel.reset(deal);
+		for (TableauPile pile : TableauPile.values()) {
+			assertEquals(model.getTableauPile(pile).toString(), aModel.getTableauPile(pile).toString());
+		}
+		assertEquals(model.getHash(), aModel.getHash());
+	}
+	
+	@ParameterizedTest
+	@ValueSource(longs = {1, 2, 3, 17, 42, 2025})
+	void testGetHash_SameAsSnapshot(long pSeed) {
+		aModel.reset(pSeed);
+		assertEquals(aModel.snapshot().getHash(), aModel.getHash());
+		SplittableRandom random = new SplittableRandom(pSeed);
+		int[] moves = new int[CompactGameState.MAX_MOVES];
+		int count = aModel.snapshot().generateMoves(moves);
+		for (int i = 0; i < 100 && count > 0; i++) {
+			aModel.decodeMove(moves[random.nextInt(count)]).perform();
+			assertEquals(aModel.snapshot().getHash(), aModel.getHash());
+			count = aModel.snapshot().generateMoves(moves);
+		}
+		while (aModel.canUndo()) {
+			aModel.undoLast();
+			assertEquals(aModel.snapshot().getHash(), aModel.getHash());
+		}
+	}
+	
+	@Test
+	void testUndoLast_ManyMoves() {
+		String initial = aModel.getTableauPile(TableauPile.SECOND).toString();
+		long hash = aModel.getHash();
+		aModel.getCardMove(CQD, TableauPile.FIRST).perform();
+		for (int i = 0; i < 100; i++) {
+			aModel.getCardMove(CJS, TableauPile.FIRST).perform();
+			aModel.getCardMove(CJS, TableauPile.FIFTH).perform();
+		}
+		assertSame(CQS, aModel.getTableauPile(TableauPile.SECOND).peekTop());
+		assertTrue(aModel.isVisibleInTableau(CQS));
+		int moves = 0;
+		while (aModel.canUndo()) {
+			aModel.undoLast();
+			moves++;
+		}
+		assertEquals(201, moves);
+		assertEquals(initial, aModel.getTableauPile(TableauPile.SECOND).toString());
+		assertTrue(aModel.isVisibleInTableau(CJS));
+		assertFalse(aModel.isVisibleInTableau(CQS));
+		assertEquals(hash, aModel.getHash());
+		aModel.undoLast(); // Does nothing
+		assertEquals(hash, aModel.getHash());
+	}
+	
+	@Test
+	void testUndo_RevealsTop() {
+		aModel.getCardMove(CQD, TableauPile.FIRST).perform();
+		assertTrue(aModel.isVisibleInTableau(CKD));
+		Move move = aModel.getCardMove(CJS, TableauPile.FIRST);
+		move.perform();
+		assertTrue(aModel.isVisibleInTableau(CQS));
+		move.undo();
+		assertFalse(aModel.isVisibleInTableau(CQS));
+		assertSame(CJS, aModel.getTableauPile(TableauPile.SECOND).peekTop());
+		aModel.undoLast();
+		assertFalse(aModel.isVisibleInTableau(CKD));
+		assertEquals(aModel.snapshot().getHash(), aModel.getHash());
+	}
+	
+	@Test
+	void testUndo_NotLastMove() {
+		Move first = aModel.getCardMove(CQD, TableauPile.FIRST);
+		first.perform();
+		aModel.getDiscardMove().perform();
+		assertThrows(AssertionError.class, first::undo);
+	}
+	
 	@Test
 	void testNullMove() {
 		Move nullMove = aModel.getNullMove();
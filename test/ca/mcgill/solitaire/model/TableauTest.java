@@ -423,6 +423,48 @@ public class TableauTest {
 		assertSame(CAC, executeGetPreviousCard(C5D).get());
 	}
 	
+	@Test
+	void testGetPileIndex_AfterPush() {
+		aTableau.push(CAC, TableauPile.THIRD);
+		aTableau.push(C5D, TableauPile.THIRD);
+		assertSame(TableauPile.THIRD, aTableau.getPileIndex(CAC));
+		assertSame(TableauPile.THIRD, aTableau.getPileIndex(C5D));
+	}
+	
+	@Test
+	void testGetPileIndex_AfterMoveWithin() {
+		aTableau.push(C3D, TableauPile.FIRST);
+		aTableau.push(C2C, TableauPile.FIRST);
+		aTableau.push(CAD, TableauPile.FIRST);
+		aTableau.push(C3H, TableauPile.SECOND);
+		aTableau.moveWithin(C2C, TableauPile.SECOND);
+		assertSame(TableauPile.FIRST, aTableau.getPileIndex(C3D));
+		assertSame(TableauPile.SECOND, aTableau.getPileIndex(C2C));
+		assertSame(TableauPile.SECOND, aTableau.getPileIndex(CAD));
+		assertFalse(aTableau.contains(C2C, TableauPile.FIRST));
+		assertSame(C2C, executeGetPreviousCard(CAD).get());
+		assertSame(C3H, executeGetPreviousCard(C2C).get());
+	}
+	
+	@Test
+	void testContains_AfterPop() {
+		aTableau.push(CAC, TableauPile.FIRST);
+		aTableau.push(C5D, TableauPile.FIRST);
+		aTableau.pop(TableauPile.FIRST);
+		assertFalse(aTableau.contains(C5D));
+		assertTrue(aTableau.contains(CAC));
+	}
+	
+	@Test
+	void testContains_AfterInitialize() {
+		aTableau.push(CAC, TableauPile.FIRST);
+		Deck deck = new StubDeck();
+		aTableau.initialize(deck);
+		assertFalse(aTableau.contains(CAC));
+		assertSame(TableauPile.SEVENTH, aTableau.getPileIndex(CQD));
+		assertSame(CKD, executeGetPreviousCard(CQD).get());
+	}
+	
 	// ***** BELOW ARE OLD TESTS ***** //
 	
 	
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Solitaire
+ * 
+ * Copyright (C) 2025 by Martin P. Robillard
+ * 
+ * See: https://github.com/prmr/Solitaire
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see http://www.gnu.org/licenses/.
+ *******************************************************************************/
+package ca.mcgill.solitaire.testutils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ca.mcgill.solitaire.archive.GameRecord;
+import ca.mcgill.solitaire.auto.GreedyPlayingStrategy;
+import ca.mcgill.solitaire.auto.PlayingStrategy;
+import ca.mcgill.solitaire.cards.Card;
+import ca.mcgill.solitaire.cards.Deck;
+import ca.mcgill.solitaire.model.CompactGameState;
+import ca.mcgill.solitaire.model.Move;
+
+/**
+ * Reproducible deals, identified by the seed used to shuffle the deck.
+ */
+public final class Deals {
+
+	private Deals() {}
+
+	/**
+	 * @param pSeed The seed of the deal.
+	 * @return The cards of the deck shuffled with pSeed, from the bottom of the
+	 *     deck to its top.
+	 */
+	public static List<Card> cards(long pSeed) {
+		Deck deck = new Deck();
+		deck.shuffle(pSeed);
+		List<Card> cards = new ArrayList<>();
+		for (Card card : deck) {
+			cards.add(card);
+		}
+		return cards;
+	}
+
+	/**
+	 * @param pSeed The seed of the deal.
+	 * @return A new game dealt from the deck shuffled with pSeed.
+	 */
+	public static CompactGameState deal(long pSeed) {
+		Deck deck = new Deck();
+		deck.shuffle(pSeed);
+		return new CompactGameState(deck);
+	}
+
+	/**
+	 * @param pSeed The seed of the deal.
+	 * @return The record of the game dealt with pSeed and played to the end
+	 *     with the greedy strategy.
+	 */
+	public static GameRecord playGreedily(long pSeed) {
+		CompactGameState state = deal(pSeed);
+		PlayingStrategy strategy = new GreedyPlayingStrategy();
+		Move move = strategy.getLegalMove(state);
+		while (!move.isNull()) {
+			move.perform();
+			move = strategy.getLegalMove(state);
+		}
+		return new GameRecord(cards(pSeed), state);
+	}
+}